@@ -7,5 +7,8 @@ public interface GameScreen {
     void show();
     void render(float delta);
     void hide();
+    /** The app lost focus or went to the background while this screen is showing; stop anything running on its own. */
+    void pause();
+    void resume();
     void dispose();
 }
@@ -0,0 +1,75 @@
+package io.github.helicopter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Fixed-layout binary snapshot of the game, kept in one reused direct buffer. A 16-byte header (magic, version,
+ * current screen) is followed by a fixed-size section per screen, so every field always sits at the same offset
+ * and capturing or restoring is a handful of buffer puts and gets. Bump {@link #VERSION} whenever a section's
+ * layout changes; snapshots from other versions are rejected rather than misread. Files are opened through streams
+ * rather than {@code java.nio.file}, which Android only has from API 26.
+ */
+public final class GameSnapshot {
+    public static final int MAGIC = 0x48534E50; // "HSNP"
+    public static final int VERSION = 2;
+    static final int HEADER_BYTES = 16;
+    static final int HELICOPTER_OFFSET = HEADER_BYTES, HELICOPTER_BYTES = 96;
+    static final int PONG_OFFSET = HELICOPTER_OFFSET + HELICOPTER_BYTES, PONG_BYTES = 64;
+    static final int SIZE = PONG_OFFSET + PONG_BYTES;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private boolean valid = false;
+
+    public boolean isValid() { return valid; }
+
+    public void capture(int screenId, HelicopterScreen helicopter, PongScreen pong) {
+        buffer.clear();
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(screenId).putInt(0);
+        buffer.position(HELICOPTER_OFFSET);
+        helicopter.writeSnapshot(buffer);
+        buffer.position(PONG_OFFSET);
+        pong.writeSnapshot(buffer);
+        valid = true;
+    }
+
+    /** Restores both screens and returns the screen that was current, or -1 if there is no valid snapshot. */
+    public int restore(HelicopterScreen helicopter, PongScreen pong) {
+        if (!valid) return -1;
+        buffer.position(HELICOPTER_OFFSET);
+        helicopter.readSnapshot(buffer);
+        buffer.position(PONG_OFFSET);
+        pong.readSnapshot(buffer);
+        return buffer.getInt(8);
+    }
+
+    public boolean save(File file) {
+        if (!valid) return false;
+        buffer.clear();
+        try (FileChannel channel = new FileOutputStream(file).getChannel()) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Loads a snapshot written by {@link #save}; leaves this snapshot invalid if the file is missing or stale. */
+    public boolean load(File file) {
+        valid = false;
+        if (!file.isFile() || file.length() != SIZE) return false;
+        buffer.clear();
+        try (FileChannel channel = new FileInputStream(file).getChannel()) {
+            while (buffer.hasRemaining()) if (channel.read(buffer) < 0) return false;
+        } catch (IOException e) {
+            return false;
+        }
+        valid = buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION;
+        return valid;
+    }
+}
@@ -11,7 +11,7 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.ScreenUtils;
-import java.util.Locale;
+import java.nio.ByteBuffer;
 
 public class HelicopterScreen implements GameScreen {
     private final Main game;
@@ -26,18 +26,25 @@ public class HelicopterScreen implements GameScreen {
     private static final int FRAME_WIDTH = 130, FRAME_HEIGHT = 52, GUN_WIDTH = 50, GUN_HEIGHT = 120;
     private static final float MIN_FIRE_INTERVAL = 1.0f, MAX_FIRE_INTERVAL = 3.0f, FIRE_DISPLAY_DURATION = 0.15f;
     private static final float FALL_SPEED = 400f, BULLET_SPEED = 800f;
+    private static final int SIM_TICKS_PER_SECOND = 120;
+    private static final float SIM_TICK = 1f / SIM_TICKS_PER_SECOND;
 
     private SpriteBatch batch;
     private Texture[] helicopterTextures, explosionTextures;
-    private Texture gunReadyTexture, gunFiresTexture, currentExplosionTexture;
+    private Texture gunReadyTexture, gunFiresTexture;
     private Animation<TextureRegion> helicopterAnimation;
     private BitmapFont font;
     private float stateTime = 0f;
     private boolean isExploded = false, isFalling = false, isGunFiring = false, isBulletActive = false;
-    private float gunFireTimer = 0f, nextFireTime = 0f, fireDisplayTimer = 0f, bulletY = 0f;
+    private float tickAccumulator = 0f, bulletY = 0f;
+    private final TimerWheel timers = new TimerWheel();
+    private final TimerWheel.Timer gunFireTimer = new TimerWheel.Timer(this::fireGun);
+    private final TimerWheel.Timer fireDisplayTimer = new TimerWheel.Timer(this::endFireDisplay);
     private final Vector2 gunPosition = new Vector2(), position = new Vector2();
     private final Vector2 velocity = new Vector2(), targetPosition = new Vector2();
-    private boolean isUserControlling = false, facingLeft = false;
+    private boolean isUserControlling = false, facingLeft = false, isStarted = false, isRestored = false;
+    private int explosionFrame = 0;
+    private final StringBuilder positionText = new StringBuilder();
 
     public HelicopterScreen(Main game) { this.game = game; }
 
@@ -60,7 +67,8 @@ public class HelicopterScreen implements GameScreen {
             explosionTextures[i] = loadTextureWithTransparency(EXPLOSION_FRAME_PATHS[i]);
         gunReadyTexture = loadTextureWithTransparency(GUN_READY_TEXTURE_PATH);
         gunFiresTexture = loadTextureWithTransparency(GUN_FIRES_TEXTURE_PATH);
-        resetGame();
+        if (isRestored) isRestored = false;
+        else resetGame();
     }
 
     private void resetGame() {
@@ -70,12 +78,14 @@ public class HelicopterScreen implements GameScreen {
         velocity.set(INITIAL_VELOCITY_X, INITIAL_VELOCITY_Y);
         gunPosition.set((sw - GUN_WIDTH) / 2f, 0);
         isExploded = isFalling = isUserControlling = isGunFiring = isBulletActive = facingLeft = false;
-        currentExplosionTexture = null;
-        gunFireTimer = fireDisplayTimer = bulletY = stateTime = 0f;
-        nextFireTime = MIN_FIRE_INTERVAL + (float) Math.random() * (MAX_FIRE_INTERVAL - MIN_FIRE_INTERVAL);
+        explosionFrame = 0;
+        isStarted = true;
+        tickAccumulator = bulletY = stateTime = 0f;
+        timers.cancelAll();
+        scheduleNextShot();
     }
 
-    private Texture loadTextureWithTransparency(String path) {
+    static Texture loadTextureWithTransparency(String path) {
         Pixmap orig = new Pixmap(Gdx.files.internal(path));
         Pixmap pm = new Pixmap(orig.getWidth(), orig.getHeight(), Pixmap.Format.RGBA8888);
         pm.setBlending(Pixmap.Blending.None);
@@ -114,21 +124,22 @@ public class HelicopterScreen implements GameScreen {
         ScreenUtils.clear(BACKGROUND_COLOR);
         batch.begin();
         batch.draw(isGunFiring ? gunFiresTexture : gunReadyTexture, gunPosition.x, gunPosition.y, GUN_WIDTH, GUN_HEIGHT);
-        if (isExploded) batch.draw(currentExplosionTexture, position.x, position.y, FRAME_WIDTH, FRAME_HEIGHT);
+        if (isExploded) batch.draw(explosionTextures[explosionFrame], position.x, position.y, FRAME_WIDTH, FRAME_HEIGHT);
         else {
             TextureRegion f = helicopterAnimation.getKeyFrame(stateTime);
             if (facingLeft != f.isFlipX()) f.flip(true, false);
             batch.draw(f, position.x, position.y, FRAME_WIDTH, FRAME_HEIGHT);
         }
-        font.draw(batch, String.format(Locale.US, "Position: (%.0f, %.0f)", position.x, position.y), TEXT_PADDING, Gdx.graphics.getHeight() - TEXT_PADDING);
+        positionText.setLength(0);
+        positionText.append("Position: (").append(Math.round(position.x)).append(", ").append(Math.round(position.y)).append(')');
+        font.draw(batch, positionText, TEXT_PADDING, Gdx.graphics.getHeight() - TEXT_PADDING);
         font.draw(batch, "ESC: Menu | R: Restart | Click: Move", TEXT_PADDING, 25);
         batch.end();
     }
 
     private void updateGunFiring(float delta) {
-        gunFireTimer += delta;
-        if (isGunFiring) { fireDisplayTimer += delta; if (fireDisplayTimer >= FIRE_DISPLAY_DURATION) { isGunFiring = false; fireDisplayTimer = 0f; } }
-        else if (gunFireTimer >= nextFireTime) { isGunFiring = true; gunFireTimer = 0f; nextFireTime = MIN_FIRE_INTERVAL + (float) Math.random() * (MAX_FIRE_INTERVAL - MIN_FIRE_INTERVAL); isBulletActive = true; bulletY = GUN_HEIGHT; }
+        tickAccumulator += delta;
+        while (tickAccumulator >= SIM_TICK) { tickAccumulator -= SIM_TICK; timers.tick(); }
         if (isBulletActive) {
             bulletY += BULLET_SPEED * delta;
             if (bulletY > Gdx.graphics.getHeight()) isBulletActive = false;
@@ -137,6 +148,21 @@ public class HelicopterScreen implements GameScreen {
         }
     }
 
+    private void fireGun() {
+        isGunFiring = isBulletActive = true;
+        bulletY = GUN_HEIGHT;
+        timers.schedule(fireDisplayTimer, toTicks(FIRE_DISPLAY_DURATION));
+        scheduleNextShot();
+    }
+
+    private void endFireDisplay() { isGunFiring = false; }
+
+    private void scheduleNextShot() {
+        timers.schedule(gunFireTimer, toTicks(MIN_FIRE_INTERVAL + (float) Math.random() * (MAX_FIRE_INTERVAL - MIN_FIRE_INTERVAL)));
+    }
+
+    private static long toTicks(float seconds) { return Math.max(1, Math.round(seconds * SIM_TICKS_PER_SECOND)); }
+
     private boolean checkGunCollision() {
         float ox = Math.max(0, Math.min(position.x + FRAME_WIDTH, gunPosition.x + GUN_WIDTH) - Math.max(position.x, gunPosition.x));
         float oy = Math.max(0, Math.min(position.y + FRAME_HEIGHT, gunPosition.y + GUN_HEIGHT) - Math.max(position.y, gunPosition.y));
@@ -145,7 +171,7 @@ public class HelicopterScreen implements GameScreen {
 
     private void triggerExplosion() {
         isExploded = isFalling = true;
-        currentExplosionTexture = explosionTextures[(int) (Math.random() * explosionTextures.length)];
+        explosionFrame = (int) (Math.random() * EXPLOSION_FRAME_PATHS.length);
         velocity.set(0, 0);
     }
 
@@ -173,7 +199,49 @@ public class HelicopterScreen implements GameScreen {
         position.y = Math.max(0, Math.min(position.y, sh - FRAME_HEIGHT));
     }
 
+    /** Writes this screen's section of a {@link GameSnapshot}; the field order is the snapshot layout. */
+    void writeSnapshot(ByteBuffer out) {
+        out.put((byte) (isStarted ? 1 : 0));
+        out.put((byte) ((isExploded ? 1 : 0) | (isFalling ? 2 : 0) | (isGunFiring ? 4 : 0) | (isBulletActive ? 8 : 0)
+            | (isUserControlling ? 16 : 0) | (facingLeft ? 32 : 0)));
+        out.put((byte) explosionFrame).put((byte) 0);
+        out.putFloat(position.x).putFloat(position.y).putFloat(velocity.x).putFloat(velocity.y);
+        out.putFloat(targetPosition.x).putFloat(targetPosition.y).putFloat(gunPosition.x).putFloat(gunPosition.y);
+        out.putFloat(stateTime).putFloat(tickAccumulator).putFloat(bulletY);
+        out.putInt((int) timers.remainingTicks(gunFireTimer)).putInt((int) timers.remainingTicks(fireDisplayTimer));
+    }
+
+    void readSnapshot(ByteBuffer in) {
+        if (in.get() == 0) return;
+        int flags = in.get();
+        isExploded = (flags & 1) != 0;
+        isFalling = (flags & 2) != 0;
+        isGunFiring = (flags & 4) != 0;
+        isBulletActive = (flags & 8) != 0;
+        isUserControlling = (flags & 16) != 0;
+        facingLeft = (flags & 32) != 0;
+        explosionFrame = Math.floorMod(in.get(), EXPLOSION_FRAME_PATHS.length);
+        in.get();
+        position.set(in.getFloat(), in.getFloat());
+        velocity.set(in.getFloat(), in.getFloat());
+        targetPosition.set(in.getFloat(), in.getFloat());
+        gunPosition.set(in.getFloat(), in.getFloat());
+        stateTime = in.getFloat();
+        tickAccumulator = in.getFloat();
+        bulletY = in.getFloat();
+        int fireTicks = in.getInt(), displayTicks = in.getInt();
+        timers.cancelAll();
+        if (fireTicks > 0) timers.schedule(gunFireTimer, fireTicks);
+        if (displayTicks > 0) timers.schedule(fireDisplayTimer, displayTicks);
+        isStarted = isRestored = true;
+    }
+
+    /** Carries on from a snapshot restored while this screen is showing, without loading its resources again. */
+    void continueRestored() { isRestored = false; }
+
     @Override public void hide() {}
+    @Override public void pause() {}
+    @Override public void resume() {}
     @Override public void dispose() {
         if (batch != null) batch.dispose();
         if (font != null) font.dispose();
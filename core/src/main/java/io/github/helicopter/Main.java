@@ -1,7 +1,10 @@
 package io.github.helicopter;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import java.io.File;
 
 /**
  * Main application class that manages different game screens.
@@ -12,23 +15,46 @@ public class Main extends ApplicationAdapter {
     public static final int SCREEN_MENU = 0;
     public static final int SCREEN_HELICOPTER = 1;
     public static final int SCREEN_PONG = 2;
+    public static final int SCREEN_SCROLLER = 3;
 
     // Screens
     private MainMenuScreen menuScreen;
     private HelicopterScreen helicopterScreen;
     private PongScreen pongScreen;
+    private ScrollingScreen scrollingScreen;
 
     // Current screen
     private GameScreen currentScreen;
     private int currentScreenId = SCREEN_MENU;
 
+    // Snapshots: one written on pause so Android process death can be survived, one for F5/F9 quick-save/load
+    private static final String RESUME_SNAPSHOT_FILE = "resume.snapshot", QUICK_SAVE_FILE = "quicksave.snapshot";
+    private final GameSnapshot resumeSnapshot = new GameSnapshot(), quickSave = new GameSnapshot();
+
+    // Generated and saved files; see dataFile()
+    public static final String DATA_DIR_PROPERTY = "helicopter.dataDir";
+    private static final String DESKTOP_DATA_DIR = ".helicopter/";
+
+    private final boolean threadedSimulation;
+
+    public Main() { this(false); }
+
+    /** @param threadedSimulation run game rules that support it on their own thread, off the GL thread */
+    public Main(boolean threadedSimulation) { this.threadedSimulation = threadedSimulation; }
+
     @Override
     public void create() {
         menuScreen = new MainMenuScreen(this);
         helicopterScreen = new HelicopterScreen(this);
         pongScreen = new PongScreen(this);
+        pongScreen.setThreadedSimulation(threadedSimulation);
+        scrollingScreen = new ScrollingScreen(this);
 
-        setScreen(SCREEN_MENU);
+        if (resumeSnapshot.load(dataFile(RESUME_SNAPSHOT_FILE))) {
+            setScreen(resumeSnapshot.restore(helicopterScreen, pongScreen));
+        } else {
+            setScreen(SCREEN_MENU);
+        }
     }
 
     public void setScreen(int screenId) {
@@ -49,6 +75,9 @@ public class Main extends ApplicationAdapter {
             case SCREEN_PONG:
                 currentScreen = pongScreen;
                 break;
+            case SCREEN_SCROLLER:
+                currentScreen = scrollingScreen;
+                break;
             default:
                 currentScreen = menuScreen;
                 break;
@@ -60,16 +89,68 @@ public class Main extends ApplicationAdapter {
 
     @Override
     public void render() {
-        float delta = Gdx.graphics.getDeltaTime();
+        render(Gdx.graphics.getDeltaTime());
+    }
+
+    /** Renders one frame that advances the game by {@code delta} seconds; tools use it to run at a fixed step. */
+    public void render(float delta) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F5)) {
+            quickSave.capture(currentScreenId, helicopterScreen, pongScreen);
+            save(quickSave, QUICK_SAVE_FILE);
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F9) && (quickSave.isValid() || quickSave.load(dataFile(QUICK_SAVE_FILE)))) {
+            int screenId = quickSave.restore(helicopterScreen, pongScreen);
+            // Showing the current screen again would load its resources a second time, so it carries on in place.
+            if (screenId != currentScreenId) setScreen(screenId);
+            else if (currentScreen == helicopterScreen) helicopterScreen.continueRestored();
+            else if (currentScreen == pongScreen) pongScreen.continueRestored();
+        }
         if (currentScreen != null) {
             currentScreen.render(delta);
         }
     }
 
+    @Override
+    public void pause() {
+        if (currentScreen != null) currentScreen.pause();
+        resumeSnapshot.capture(currentScreenId, helicopterScreen, pongScreen);
+        save(resumeSnapshot, RESUME_SNAPSHOT_FILE);
+    }
+
+    private static void save(GameSnapshot snapshot, String name) {
+        File file = dataFile(name);
+        if (!snapshot.save(file)) Gdx.app.error("Main", "Couldn't save the game to " + file);
+    }
+
+    @Override
+    public void resume() {
+        // Still in memory, so the saved state is only needed if the process dies during the next pause.
+        dataFile(RESUME_SNAPSHOT_FILE).delete();
+        if (currentScreen != null) currentScreen.resume();
+    }
+
+    /**
+     * Returns a file the game writes itself, with its folder created. On desktop the working directory is the asset
+     * folder, so these go under the user's home instead; {@code -Dhelicopter.dataDir=...} overrides the location.
+     */
+    static File dataFile(String name) {
+        String override = System.getProperty(DATA_DIR_PROPERTY);
+        File file;
+        if (override != null) file = new File(override, name);
+        else if (Gdx.app.getType() == Application.ApplicationType.Desktop) file = Gdx.files.external(DESKTOP_DATA_DIR + name).file();
+        else file = Gdx.files.local(name).file();
+        File parent = file.getParentFile();
+        if (parent != null) parent.mkdirs();
+        return file;
+    }
+
     @Override
     public void dispose() {
+        // A clean exit starts from the menu next time.
+        dataFile(RESUME_SNAPSHOT_FILE).delete();
         if (menuScreen != null) menuScreen.dispose();
         if (helicopterScreen != null) helicopterScreen.dispose();
         if (pongScreen != null) pongScreen.dispose();
+        if (scrollingScreen != null) scrollingScreen.dispose();
     }
 }
@@ -16,7 +16,7 @@ public class MainMenuScreen implements GameScreen {
     private GlyphLayout layout;
     private int selectedOption = 0;
 
-    private static final String[] MENU_OPTIONS = {"1. Helicopter Game", "2. Pong Game", "3. Exit"};
+    private static final String[] MENU_OPTIONS = {"1. Helicopter Game", "2. Pong Game", "3. Helicopter Scroller", "4. Exit"};
     private static final Color BACKGROUND_COLOR = new Color(0.1f, 0.1f, 0.15f, 1f);
 
     public MainMenuScreen(Main game) { this.game = game; }
@@ -64,17 +64,21 @@ public class MainMenuScreen implements GameScreen {
         if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_1)) { selectedOption = 0; selectOption(); }
         if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_2)) { selectedOption = 1; selectOption(); }
         if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_3)) { selectedOption = 2; selectOption(); }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_4)) { selectedOption = 3; selectOption(); }
     }
 
     private void selectOption() {
         switch (selectedOption) {
             case 0: game.setScreen(Main.SCREEN_HELICOPTER); break;
             case 1: game.setScreen(Main.SCREEN_PONG); break;
-            case 2: Gdx.app.exit(); break;
+            case 2: game.setScreen(Main.SCREEN_SCROLLER); break;
+            case 3: Gdx.app.exit(); break;
         }
     }
 
     @Override public void hide() {}
+    @Override public void pause() {}
+    @Override public void resume() {}
     @Override public void dispose() {
         if (batch != null) batch.dispose();
         if (titleFont != null) titleFont.dispose();
@@ -0,0 +1,104 @@
+package io.github.helicopter;
+
+import java.util.Random;
+
+/**
+ * Single-player Pong opponent for the right paddle. Instead of chasing the ball every frame it solves where the ball
+ * will cross the paddle, wall reflections included, and only re-solves when the ball's direction changes (a paddle
+ * hit, a wall bounce or a new serve). Between decisions it just slides the paddle toward the stored target.
+ * Difficulty sets how long it takes to react to a change, how far off it aims and how fast the paddle moves.
+ */
+public final class PongAi {
+    public static final int EASY = 0, NORMAL = 1, HARD = 2, DIFFICULTIES = 3;
+    private static final String[] NAMES = {"Easy", "Normal", "Hard"};
+    private static final float[] REACTION_SECONDS = {0.35f, 0.12f, 0.05f};
+    private static final float[] AIM_ERROR = {45f, 15f, 5f};
+    private static final float[] SPEED = {
+        PongSimulation.PADDLE_SPEED * 0.6f, PongSimulation.PADDLE_SPEED * 0.85f, PongSimulation.PADDLE_SPEED};
+    private static final float BALL_SIZE = PongSimulation.BALL_SIZE, PADDLE_HEIGHT = PongSimulation.PADDLE_HEIGHT;
+
+    private final Random random;
+    private int difficulty = NORMAL;
+    private float screenHeight, faceX;
+    private float targetY, lastVelX, lastVelY;
+    private float reactionLeft = 0f;
+    private boolean decisionPending = true;
+    private long decisions = 0;
+
+    public PongAi() { this(new Random()); }
+
+    public PongAi(long seed) { this(new Random(seed)); }
+
+    private PongAi(Random random) { this.random = random; }
+
+    public static String name(int difficulty) { return NAMES[difficulty]; }
+
+    public int getDifficulty() { return difficulty; }
+    public void setDifficulty(int difficulty) { this.difficulty = difficulty; }
+    public float getTargetY() { return targetY; }
+    public long getDecisions() { return decisions; }
+
+    /** Called every step; a new court height also moves the target back to the centre. */
+    public void setBounds(float width, float height) {
+        faceX = width - PongSimulation.PADDLE_MARGIN - PongSimulation.PADDLE_WIDTH - BALL_SIZE;
+        if (height == screenHeight) return;
+        screenHeight = height;
+        targetY = centreY();
+    }
+
+    /**
+     * Forgets the current plan, e.g. after a serve or a restore. The paddle heads for the centre of the court until
+     * the next update decides again after the reaction delay.
+     */
+    public void reset() {
+        targetY = centreY();
+        replan();
+    }
+
+    private void replan() {
+        decisionPending = true;
+        reactionLeft = REACTION_SECONDS[difficulty];
+    }
+
+    private float centreY() { return Math.max(0, screenHeight / 2f - PADDLE_HEIGHT / 2f); }
+
+    /** Advances the AI by one step and returns the new paddle Y. */
+    public float update(float paddleY, float ballX, float ballY, float velX, float velY, float delta) {
+        if ((velX > 0) != (lastVelX > 0) || (velY > 0) != (lastVelY > 0)) {
+            lastVelX = velX;
+            lastVelY = velY;
+            if (!decisionPending) replan();
+        }
+        if (decisionPending && (reactionLeft -= delta) <= 0) decide(ballX, ballY, velX, velY);
+
+        float step = SPEED[difficulty] * delta, distance = targetY - paddleY;
+        if (Math.abs(distance) <= step) return targetY;
+        return distance > 0 ? paddleY + step : paddleY - step;
+    }
+
+    private void decide(float ballX, float ballY, float velX, float velY) {
+        decisionPending = false;
+        decisions++;
+        float y;
+        if (velX > 0) {
+            float error = (random.nextFloat() * 2f - 1f) * AIM_ERROR[difficulty];
+            y = interceptY(ballX, ballY, velX, velY, faceX, screenHeight) + BALL_SIZE / 2f - PADDLE_HEIGHT / 2f + error;
+        } else {
+            y = centreY();
+        }
+        targetY = Math.max(0, Math.min(y, screenHeight - PADDLE_HEIGHT));
+    }
+
+    /**
+     * Returns the ball's Y when its X reaches {@code faceX}. Bouncing between the walls is a triangle wave in the
+     * unfolded straight-line Y, so it folds that into the court instead of stepping through each bounce.
+     */
+    public static float interceptY(float ballX, float ballY, float velX, float velY, float faceX, float screenHeight) {
+        float range = screenHeight - BALL_SIZE;
+        if (range <= 0) return 0;
+        float period = 2f * range;
+        float folded = (ballY + velY * (faceX - ballX) / velX) % period;
+        if (folded < 0) folded += period;
+        return folded <= range ? folded : period - folded;
+    }
+}
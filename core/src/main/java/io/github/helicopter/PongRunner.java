@@ -0,0 +1,151 @@
+package io.github.helicopter;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Steps a {@link PongSimulation} either on the calling thread, once per frame, or on a {@link SimulationThread} at a
+ * fixed rate. While the thread runs, the GL thread only reaches the simulation through an atomic command mask and
+ * volatile input and bounds, and reads states published through a {@link TripleBuffer}, interpolating between the
+ * two newest for drawing. {@link PongScreen} drives it with keyboard input; the checks drive it the same way.
+ */
+public final class PongRunner {
+    public static final int COMMAND_RESET = 1, COMMAND_TOGGLE_MODE = 2, COMMAND_CYCLE_DIFFICULTY = 4;
+    public static final int TICKS_PER_SECOND = 120;
+    public static final String THREAD_NAME = "pong-simulation";
+    private static final float TICK = 1f / TICKS_PER_SECOND;
+
+    private final PongSimulation simulation = new PongSimulation();
+    private final SimulationThread thread = new SimulationThread(THREAD_NAME, TICKS_PER_SECOND, this::tick);
+    private final TripleBuffer<PongState> published = new TripleBuffer<>(new PongState(), new PongState(), new PongState());
+    private final PongState previousState = new PongState(), latestState = new PongState(), drawnState = new PongState();
+    private final AtomicInteger pendingCommands = new AtomicInteger();
+    private volatile int input = 0;
+    private volatile float width, height;
+
+    public SimulationThread getThread() { return thread; }
+    public boolean isThreaded() { return thread.isRunning(); }
+
+    /** The newest state: the simulation's own while it steps here, the last published one while the thread runs. */
+    public PongState getState() { return thread.isRunning() ? latestState : simulation.getState(); }
+
+    /** Starts a new game; only while the thread is stopped. */
+    public void reset(float width, float height) {
+        simulation.setBounds(width, height);
+        simulation.reset();
+    }
+
+    /** Hands the simulation to the thread, which carries on from the current state. */
+    public void startThread(float width, float height) {
+        if (thread.isRunning()) return;
+        this.width = width;
+        this.height = height;
+        published.update();
+        previousState.set(simulation.getState());
+        latestState.set(simulation.getState());
+        thread.start();
+    }
+
+    /** Stops the thread after its current tick; the caller owns the simulation again. */
+    public void stopThread() { thread.stop(); }
+
+    /** Applies {@code COMMAND_*} bits now, or before the next tick while the thread runs. */
+    public void command(int commands) {
+        if (commands == 0) return;
+        if (thread.isRunning()) pendingCommands.accumulateAndGet(commands, PongRunner::or);
+        else apply(commands);
+    }
+
+    /**
+     * Advances the game by {@code delta} seconds with {@code PongSimulation.INPUT_*} bits, or hands input and bounds
+     * to the thread, and returns the state to draw this frame. The returned state is reused on the next call.
+     */
+    public PongState update(float delta, int input, float width, float height) {
+        if (!thread.isRunning()) {
+            simulation.setBounds(width, height);
+            simulation.step(delta, input);
+            return simulation.getState();
+        }
+        this.input = input;
+        this.width = width;
+        this.height = height;
+        if (published.update()) {
+            previousState.set(latestState);
+            latestState.set(published.front());
+        }
+        float alpha = interpolationAlpha();
+        drawnState.set(latestState);
+        drawnState.leftPaddleY = lerp(previousState.leftPaddleY, latestState.leftPaddleY, alpha);
+        drawnState.rightPaddleY = lerp(previousState.rightPaddleY, latestState.rightPaddleY, alpha);
+        drawnState.ballX = lerp(previousState.ballX, latestState.ballX, alpha);
+        drawnState.ballY = lerp(previousState.ballY, latestState.ballY, alpha);
+        return drawnState;
+    }
+
+    private void apply(int commands) {
+        if ((commands & COMMAND_RESET) != 0) simulation.reset();
+        else {
+            if ((commands & COMMAND_TOGGLE_MODE) != 0) simulation.toggleMode();
+            if ((commands & COMMAND_CYCLE_DIFFICULTY) != 0) simulation.cycleDifficulty();
+        }
+    }
+
+    /** Runs on the simulation thread; everything it shares with the GL thread is volatile, atomic or published. */
+    private void tick() {
+        int commands = pendingCommands.getAndSet(0);
+        simulation.setBounds(width, height);
+        apply(commands);
+        if ((commands & COMMAND_RESET) == 0) simulation.step(TICK, input);
+        PongState back = published.back();
+        back.set(simulation.getState());
+        back.publishedNanos = System.nanoTime();
+        published.publish();
+    }
+
+    /**
+     * Draws one tick behind the newest state so there is always a pair to interpolate between. A new serve
+     * teleports the ball, so that is shown as-is.
+     */
+    private float interpolationAlpha() {
+        long span = latestState.publishedNanos - previousState.publishedNanos;
+        if (span <= 0 || latestState.serve != previousState.serve) return 1f;
+        long renderTime = System.nanoTime() - thread.getTickNanos();
+        return Math.max(0f, Math.min(1f, (float) (renderTime - previousState.publishedNanos) / span));
+    }
+
+    private static float lerp(float from, float to, float alpha) { return from + (to - from) * alpha; }
+
+    private static int or(int a, int b) { return a | b; }
+
+    /** Writes the game after {@link PongScreen}'s started flag; the field order is the snapshot layout. */
+    public void writeSnapshot(ByteBuffer out) {
+        PongState state = getState();
+        out.put((byte) (state.singlePlayer ? 1 : 0)).put((byte) state.aiDifficulty).put((byte) 0);
+        out.putFloat(state.leftPaddleY).putFloat(state.rightPaddleY).putFloat(state.ballX).putFloat(state.ballY);
+        out.putFloat(state.ballVelX).putFloat(state.ballVelY).putFloat(state.currentBallSpeed);
+        out.putInt(state.leftScore).putInt(state.rightScore);
+    }
+
+    /**
+     * Stops the thread, if any, and restores a game written by {@link #writeSnapshot}; start the thread again
+     * afterwards. Out-of-range scores and difficulties from a damaged file are clamped, since they index text arrays.
+     */
+    public void readSnapshot(ByteBuffer in) {
+        thread.stop();
+        PongState state = simulation.getState();
+        state.singlePlayer = in.get() != 0;
+        state.aiDifficulty = Math.floorMod(in.get(), PongAi.DIFFICULTIES);
+        in.get();
+        state.leftPaddleY = in.getFloat();
+        state.rightPaddleY = in.getFloat();
+        state.ballX = in.getFloat();
+        state.ballY = in.getFloat();
+        state.ballVelX = in.getFloat();
+        state.ballVelY = in.getFloat();
+        state.currentBallSpeed = in.getFloat();
+        state.leftScore = Math.max(0, Math.min(in.getInt(), PongSimulation.WINNING_SCORE));
+        state.rightScore = Math.max(0, Math.min(in.getInt(), PongSimulation.WINNING_SCORE));
+        state.serve++;
+        simulation.restored();
+    }
+}
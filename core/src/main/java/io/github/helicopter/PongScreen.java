@@ -7,6 +7,7 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.utils.ScreenUtils;
+import java.nio.ByteBuffer;
 
 public class PongScreen implements GameScreen {
     private final Main game;
@@ -14,19 +15,31 @@ public class PongScreen implements GameScreen {
     private ShapeRenderer shapeRenderer;
     private BitmapFont font;
 
-    private static final float PADDLE_WIDTH = 15f, PADDLE_HEIGHT = 80f, PADDLE_SPEED = 400f;
-    private static final float BALL_SIZE = 15f, INITIAL_BALL_SPEED = 300f, BALL_SPEED_INCREMENT = 20f;
-    private static final int WINNING_SCORE = 21;
-    private static final float PADDLE_MARGIN = 30f;
+    private static final float PADDLE_WIDTH = PongSimulation.PADDLE_WIDTH, PADDLE_HEIGHT = PongSimulation.PADDLE_HEIGHT;
+    private static final float BALL_SIZE = PongSimulation.BALL_SIZE, PADDLE_MARGIN = PongSimulation.PADDLE_MARGIN;
+    private static final String[] SCORE_TEXT = new String[PongSimulation.WINNING_SCORE + 1];
+    static { for (int i = 0; i <= PongSimulation.WINNING_SCORE; i++) SCORE_TEXT[i] = String.valueOf(i); }
+    private static final String[] SINGLE_PLAYER_TEXT = new String[PongAi.DIFFICULTIES];
+    static { for (int i = 0; i < PongAi.DIFFICULTIES; i++) SINGLE_PLAYER_TEXT[i] = "Single Player, " + PongAi.name(i) + " AI (T, D)"; }
 
-    private float leftPaddleY, rightPaddleY, ballX, ballY, ballVelX, ballVelY, currentBallSpeed;
+    private final PongRunner runner = new PongRunner();
     private float screenWidth, screenHeight;
-    private int leftScore = 0, rightScore = 0;
-    private boolean gameOver = false, singlePlayer = true;
-    private String winner = "";
+    private boolean started = false, restored = false, visible = false, paused = false;
+
+    // Optional simulation thread: the GL thread only samples input and draws what the runner publishes.
+    private boolean threaded = false;
 
     public PongScreen(Main game) { this.game = game; }
 
+    /** Runs the game rules on a {@link SimulationThread} instead of the GL thread. */
+    public void setThreadedSimulation(boolean threaded) {
+        if (this.threaded == threaded) return;
+        this.threaded = threaded;
+        if (!visible || paused) return;
+        if (threaded) runner.startThread(screenWidth, screenHeight);
+        else runner.stopThread();
+    }
+
     @Override
     public void show() {
         batch = new SpriteBatch();
@@ -36,27 +49,15 @@ public class PongScreen implements GameScreen {
         font.getData().setScale(2f);
         screenWidth = Gdx.graphics.getWidth();
         screenHeight = Gdx.graphics.getHeight();
-        resetGame();
+        if (restored) restored = false;
+        else resetGame();
+        visible = true;
+        if (threaded && !paused) runner.startThread(screenWidth, screenHeight);
     }
 
     private void resetGame() {
-        screenWidth = Gdx.graphics.getWidth();
-        screenHeight = Gdx.graphics.getHeight();
-        leftPaddleY = rightPaddleY = screenHeight / 2f - PADDLE_HEIGHT / 2f;
-        leftScore = rightScore = 0;
-        gameOver = false;
-        winner = "";
-        currentBallSpeed = INITIAL_BALL_SPEED;
-        resetBall();
-    }
-
-    private void resetBall() {
-        ballX = screenWidth / 2f - BALL_SIZE / 2f;
-        ballY = screenHeight / 2f - BALL_SIZE / 2f;
-        float angle = (float) (Math.random() * Math.PI / 2 - Math.PI / 4);
-        int dir = Math.random() > 0.5 ? 1 : -1;
-        ballVelX = dir * currentBallSpeed * (float) Math.cos(angle);
-        ballVelY = currentBallSpeed * (float) Math.sin(angle);
+        runner.reset(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        started = true;
     }
 
     @Override
@@ -65,62 +66,44 @@ public class PongScreen implements GameScreen {
         screenHeight = Gdx.graphics.getHeight();
 
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) { game.setScreen(Main.SCREEN_MENU); return; }
-        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) { resetGame(); return; }
-        if (Gdx.input.isKeyJustPressed(Input.Keys.T)) singlePlayer = !singlePlayer;
-
-        if (Gdx.input.isKeyPressed(Input.Keys.W)) leftPaddleY += PADDLE_SPEED * delta;
-        if (Gdx.input.isKeyPressed(Input.Keys.S)) leftPaddleY -= PADDLE_SPEED * delta;
-        if (!singlePlayer) {
-            if (Gdx.input.isKeyPressed(Input.Keys.UP)) rightPaddleY += PADDLE_SPEED * delta;
-            if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) rightPaddleY -= PADDLE_SPEED * delta;
-        }
-        leftPaddleY = Math.max(0, Math.min(leftPaddleY, screenHeight - PADDLE_HEIGHT));
-        rightPaddleY = Math.max(0, Math.min(rightPaddleY, screenHeight - PADDLE_HEIGHT));
-
-        if (!gameOver) {
-            if (singlePlayer) {
-                float pc = rightPaddleY + PADDLE_HEIGHT / 2f, bc = ballY + BALL_SIZE / 2f;
-                float aiSpeed = PADDLE_SPEED * 0.7f;
-                if (bc > pc + 10) rightPaddleY += aiSpeed * delta;
-                else if (bc < pc - 10) rightPaddleY -= aiSpeed * delta;
-                rightPaddleY = Math.max(0, Math.min(rightPaddleY, screenHeight - PADDLE_HEIGHT));
-            }
-            ballX += ballVelX * delta;
-            ballY += ballVelY * delta;
-            if (ballY <= 0) { ballY = 0; ballVelY = Math.abs(ballVelY); }
-            else if (ballY + BALL_SIZE >= screenHeight) { ballY = screenHeight - BALL_SIZE; ballVelY = -Math.abs(ballVelY); }
-
-            float lpx = PADDLE_MARGIN, rpx = screenWidth - PADDLE_MARGIN - PADDLE_WIDTH;
-            if (ballX <= lpx + PADDLE_WIDTH && ballX + BALL_SIZE >= lpx && ballY + BALL_SIZE >= leftPaddleY && ballY <= leftPaddleY + PADDLE_HEIGHT) {
-                ballX = lpx + PADDLE_WIDTH; ballVelX = Math.abs(ballVelX); increaseBallSpeed(); adjustBallAngle(leftPaddleY);
-            }
-            if (ballX + BALL_SIZE >= rpx && ballX <= rpx + PADDLE_WIDTH && ballY + BALL_SIZE >= rightPaddleY && ballY <= rightPaddleY + PADDLE_HEIGHT) {
-                ballX = rpx - BALL_SIZE; ballVelX = -Math.abs(ballVelX); increaseBallSpeed(); adjustBallAngle(rightPaddleY);
-            }
-            if (ballX + BALL_SIZE < 0) { rightScore++; checkWinner(); if (!gameOver) resetBall(); }
-            else if (ballX > screenWidth) { leftScore++; checkWinner(); if (!gameOver) resetBall(); }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.M)) setThreadedSimulation(!threaded);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
+            runner.command(PongRunner.COMMAND_RESET);
+            return;
         }
+        int commands = 0;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.T)) commands |= PongRunner.COMMAND_TOGGLE_MODE;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.D)) commands |= PongRunner.COMMAND_CYCLE_DIFFICULTY;
+        runner.command(commands);
+        int input = 0;
+        if (Gdx.input.isKeyPressed(Input.Keys.W)) input |= PongSimulation.INPUT_LEFT_UP;
+        if (Gdx.input.isKeyPressed(Input.Keys.S)) input |= PongSimulation.INPUT_LEFT_DOWN;
+        if (Gdx.input.isKeyPressed(Input.Keys.UP)) input |= PongSimulation.INPUT_RIGHT_UP;
+        if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) input |= PongSimulation.INPUT_RIGHT_DOWN;
+
+        PongState state = runner.update(delta, input, screenWidth, screenHeight);
 
         ScreenUtils.clear(Color.BLACK);
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
         shapeRenderer.setColor(Color.WHITE);
         for (int i = 0; i < screenHeight; i += 30) shapeRenderer.rect(screenWidth / 2f - 2, i, 4, 15);
-        shapeRenderer.rect(PADDLE_MARGIN, leftPaddleY, PADDLE_WIDTH, PADDLE_HEIGHT);
-        shapeRenderer.rect(screenWidth - PADDLE_MARGIN - PADDLE_WIDTH, rightPaddleY, PADDLE_WIDTH, PADDLE_HEIGHT);
-        shapeRenderer.rect(ballX, ballY, BALL_SIZE, BALL_SIZE);
+        shapeRenderer.rect(PADDLE_MARGIN, state.leftPaddleY, PADDLE_WIDTH, PADDLE_HEIGHT);
+        shapeRenderer.rect(screenWidth - PADDLE_MARGIN - PADDLE_WIDTH, state.rightPaddleY, PADDLE_WIDTH, PADDLE_HEIGHT);
+        shapeRenderer.rect(state.ballX, state.ballY, BALL_SIZE, BALL_SIZE);
         shapeRenderer.end();
 
         batch.begin();
-        font.draw(batch, String.valueOf(leftScore), screenWidth / 4f, screenHeight - 30);
-        font.draw(batch, String.valueOf(rightScore), 3 * screenWidth / 4f, screenHeight - 30);
+        font.draw(batch, SCORE_TEXT[state.leftScore], screenWidth / 4f, screenHeight - 30);
+        font.draw(batch, SCORE_TEXT[state.rightScore], 3 * screenWidth / 4f, screenHeight - 30);
         font.getData().setScale(1f);
-        font.draw(batch, singlePlayer ? "Single Player (T)" : "Multiplayer (T)", 10, 30);
+        font.draw(batch, state.singlePlayer ? SINGLE_PLAYER_TEXT[state.aiDifficulty] : "Multiplayer (T)", 10, 30);
         font.draw(batch, "W/S: Left | UP/DOWN: Right | R: Restart | ESC: Menu", 10, 55);
+        font.draw(batch, threaded ? "Simulation thread: on (M)" : "Simulation thread: off (M)", 10, 80);
         font.getData().setScale(2f);
-        if (gameOver) {
+        if (state.gameOver) {
             font.getData().setScale(3f);
             font.setColor(Color.YELLOW);
-            font.draw(batch, winner, screenWidth / 2f - 150, screenHeight / 2f);
+            font.draw(batch, winnerText(state), screenWidth / 2f - 150, screenHeight / 2f);
             font.getData().setScale(1.5f);
             font.setColor(Color.WHITE);
             font.draw(batch, "Press R to restart", screenWidth / 2f - 100, screenHeight / 2f - 50);
@@ -129,28 +112,47 @@ public class PongScreen implements GameScreen {
         batch.end();
     }
 
-    private void increaseBallSpeed() {
-        currentBallSpeed += BALL_SPEED_INCREMENT;
-        float speed = (float) Math.sqrt(ballVelX * ballVelX + ballVelY * ballVelY);
-        float ratio = currentBallSpeed / speed;
-        ballVelX *= ratio; ballVelY *= ratio;
+    private static String winnerText(PongState state) {
+        if (state.leftScore >= PongSimulation.WINNING_SCORE) return state.singlePlayer ? "YOU WIN!" : "LEFT WINS!";
+        return state.singlePlayer ? "AI WINS!" : "RIGHT WINS!";
     }
 
-    private void adjustBallAngle(float paddleY) {
-        float hit = (ballY + BALL_SIZE / 2f - paddleY) / PADDLE_HEIGHT;
-        float angle = (hit - 0.5f) * (float) Math.PI / 3;
-        float dir = ballVelX > 0 ? 1 : -1;
-        ballVelX = dir * currentBallSpeed * (float) Math.cos(angle);
-        ballVelY = currentBallSpeed * (float) Math.sin(angle);
+    /** Writes this screen's section of a {@link GameSnapshot}; the field order is the snapshot layout. */
+    void writeSnapshot(ByteBuffer out) {
+        out.put((byte) (started ? 1 : 0));
+        runner.writeSnapshot(out);
     }
 
-    private void checkWinner() {
-        if (leftScore >= WINNING_SCORE) { gameOver = true; winner = singlePlayer ? "YOU WIN!" : "LEFT WINS!"; }
-        else if (rightScore >= WINNING_SCORE) { gameOver = true; winner = singlePlayer ? "AI WINS!" : "RIGHT WINS!"; }
+    /** The simulation thread, if any, stays stopped until {@link #show()} or {@link #continueRestored()}. */
+    void readSnapshot(ByteBuffer in) {
+        if (in.get() == 0) return;
+        runner.readSnapshot(in);
+        started = restored = true;
     }
 
-    @Override public void hide() {}
+    /** Carries on from a snapshot restored while this screen is showing, without loading its resources again. */
+    void continueRestored() {
+        restored = false;
+        if (threaded && visible && !paused) runner.startThread(screenWidth, screenHeight);
+    }
+
+    /** Nobody is playing while the app is in the background, so the simulation thread stops until it comes back. */
+    @Override public void pause() {
+        paused = true;
+        runner.stopThread();
+    }
+
+    @Override public void resume() {
+        paused = false;
+        if (threaded && visible) runner.startThread(screenWidth, screenHeight);
+    }
+
+    @Override public void hide() {
+        visible = false;
+        runner.stopThread();
+    }
     @Override public void dispose() {
+        runner.stopThread();
         if (batch != null) batch.dispose();
         if (shapeRenderer != null) shapeRenderer.dispose();
         if (font != null) font.dispose();
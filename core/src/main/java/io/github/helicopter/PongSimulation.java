@@ -0,0 +1,106 @@
+package io.github.helicopter;
+
+/** Pong game rules, independent of drawing and input so they can run on the GL thread or a {@link SimulationThread}. */
+public final class PongSimulation {
+    public static final float PADDLE_WIDTH = 15f, PADDLE_HEIGHT = 80f, PADDLE_SPEED = 400f;
+    public static final float BALL_SIZE = 15f, INITIAL_BALL_SPEED = 300f, BALL_SPEED_INCREMENT = 20f;
+    static final int WINNING_SCORE = 21;
+    public static final float PADDLE_MARGIN = 30f;
+    public static final int INPUT_LEFT_UP = 1, INPUT_LEFT_DOWN = 2, INPUT_RIGHT_UP = 4, INPUT_RIGHT_DOWN = 8;
+
+    private final PongState state = new PongState();
+    private final PongAi ai = new PongAi();
+    private float screenWidth, screenHeight;
+
+    public PongState getState() { return state; }
+
+    public void setBounds(float width, float height) {
+        screenWidth = width;
+        screenHeight = height;
+        ai.setBounds(width, height);
+    }
+
+    public void reset() {
+        state.leftPaddleY = state.rightPaddleY = screenHeight / 2f - PADDLE_HEIGHT / 2f;
+        state.leftScore = state.rightScore = 0;
+        state.gameOver = false;
+        state.currentBallSpeed = INITIAL_BALL_SPEED;
+        resetBall();
+    }
+
+    public void toggleMode() { state.singlePlayer = !state.singlePlayer; }
+
+    public void cycleDifficulty() {
+        state.aiDifficulty = (state.aiDifficulty + 1) % PongAi.DIFFICULTIES;
+        ai.setDifficulty(state.aiDifficulty);
+    }
+
+    public void step(float delta, int input) {
+        PongState s = state;
+        if ((input & INPUT_LEFT_UP) != 0) s.leftPaddleY += PADDLE_SPEED * delta;
+        if ((input & INPUT_LEFT_DOWN) != 0) s.leftPaddleY -= PADDLE_SPEED * delta;
+        if (!s.singlePlayer) {
+            if ((input & INPUT_RIGHT_UP) != 0) s.rightPaddleY += PADDLE_SPEED * delta;
+            if ((input & INPUT_RIGHT_DOWN) != 0) s.rightPaddleY -= PADDLE_SPEED * delta;
+        }
+        s.leftPaddleY = Math.max(0, Math.min(s.leftPaddleY, screenHeight - PADDLE_HEIGHT));
+        s.rightPaddleY = Math.max(0, Math.min(s.rightPaddleY, screenHeight - PADDLE_HEIGHT));
+
+        if (s.gameOver) return;
+        if (s.singlePlayer) {
+            s.rightPaddleY = ai.update(s.rightPaddleY, s.ballX, s.ballY, s.ballVelX, s.ballVelY, delta);
+            s.rightPaddleY = Math.max(0, Math.min(s.rightPaddleY, screenHeight - PADDLE_HEIGHT));
+        }
+        s.ballX += s.ballVelX * delta;
+        s.ballY += s.ballVelY * delta;
+        if (s.ballY <= 0) { s.ballY = 0; s.ballVelY = Math.abs(s.ballVelY); }
+        else if (s.ballY + BALL_SIZE >= screenHeight) { s.ballY = screenHeight - BALL_SIZE; s.ballVelY = -Math.abs(s.ballVelY); }
+
+        float lpx = PADDLE_MARGIN, rpx = screenWidth - PADDLE_MARGIN - PADDLE_WIDTH;
+        if (s.ballX <= lpx + PADDLE_WIDTH && s.ballX + BALL_SIZE >= lpx && s.ballY + BALL_SIZE >= s.leftPaddleY && s.ballY <= s.leftPaddleY + PADDLE_HEIGHT) {
+            s.ballX = lpx + PADDLE_WIDTH; s.ballVelX = Math.abs(s.ballVelX); increaseBallSpeed(); adjustBallAngle(s.leftPaddleY);
+        }
+        if (s.ballX + BALL_SIZE >= rpx && s.ballX <= rpx + PADDLE_WIDTH && s.ballY + BALL_SIZE >= s.rightPaddleY && s.ballY <= s.rightPaddleY + PADDLE_HEIGHT) {
+            s.ballX = rpx - BALL_SIZE; s.ballVelX = -Math.abs(s.ballVelX); increaseBallSpeed(); adjustBallAngle(s.rightPaddleY);
+        }
+        if (s.ballX + BALL_SIZE < 0) { s.rightScore++; checkWinner(); if (!s.gameOver) resetBall(); }
+        else if (s.ballX > screenWidth) { s.leftScore++; checkWinner(); if (!s.gameOver) resetBall(); }
+    }
+
+    private void resetBall() {
+        state.ballX = screenWidth / 2f - BALL_SIZE / 2f;
+        state.ballY = screenHeight / 2f - BALL_SIZE / 2f;
+        float angle = (float) (Math.random() * Math.PI / 2 - Math.PI / 4);
+        int dir = Math.random() > 0.5 ? 1 : -1;
+        state.ballVelX = dir * state.currentBallSpeed * (float) Math.cos(angle);
+        state.ballVelY = state.currentBallSpeed * (float) Math.sin(angle);
+        state.serve++;
+        ai.reset();
+    }
+
+    private void increaseBallSpeed() {
+        state.currentBallSpeed += BALL_SPEED_INCREMENT;
+        float speed = (float) Math.sqrt(state.ballVelX * state.ballVelX + state.ballVelY * state.ballVelY);
+        float ratio = state.currentBallSpeed / speed;
+        state.ballVelX *= ratio; state.ballVelY *= ratio;
+    }
+
+    private void adjustBallAngle(float paddleY) {
+        float hit = (state.ballY + BALL_SIZE / 2f - paddleY) / PADDLE_HEIGHT;
+        float angle = (hit - 0.5f) * (float) Math.PI / 3;
+        float dir = state.ballVelX > 0 ? 1 : -1;
+        state.ballVelX = dir * state.currentBallSpeed * (float) Math.cos(angle);
+        state.ballVelY = state.currentBallSpeed * (float) Math.sin(angle);
+    }
+
+    private void checkWinner() {
+        state.gameOver = state.leftScore >= WINNING_SCORE || state.rightScore >= WINNING_SCORE;
+    }
+
+    /** Brings everything derived from the state back in line after it was restored from a snapshot. */
+    void restored() {
+        checkWinner();
+        ai.setDifficulty(state.aiDifficulty);
+        ai.reset();
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.helicopter;
+
+/**
+ * Everything needed to draw or save a Pong game at one simulation step. With the simulation thread enabled, states
+ * are copied through a {@link TripleBuffer} and never shared between threads.
+ */
+public final class PongState {
+    float leftPaddleY, rightPaddleY, ballX, ballY, ballVelX, ballVelY, currentBallSpeed;
+    int leftScore, rightScore, serve, aiDifficulty = PongAi.NORMAL;
+    boolean gameOver, singlePlayer = true;
+    long publishedNanos;
+
+    public float getLeftPaddleY() { return leftPaddleY; }
+    public float getRightPaddleY() { return rightPaddleY; }
+    public float getBallX() { return ballX; }
+    public float getBallY() { return ballY; }
+    public float getBallSpeed() { return currentBallSpeed; }
+    public int getLeftScore() { return leftScore; }
+    public int getRightScore() { return rightScore; }
+    /** Counts serves and restores; the ball jumps when it changes. */
+    public int getServe() { return serve; }
+    public int getAiDifficulty() { return aiDifficulty; }
+    public boolean isGameOver() { return gameOver; }
+    public boolean isSinglePlayer() { return singlePlayer; }
+
+    public void set(PongState other) {
+        leftPaddleY = other.leftPaddleY;
+        rightPaddleY = other.rightPaddleY;
+        ballX = other.ballX;
+        ballY = other.ballY;
+        ballVelX = other.ballVelX;
+        ballVelY = other.ballVelY;
+        currentBallSpeed = other.currentBallSpeed;
+        leftScore = other.leftScore;
+        rightScore = other.rightScore;
+        serve = other.serve;
+        gameOver = other.gameOver;
+        singlePlayer = other.singlePlayer;
+        aiDifficulty = other.aiDifficulty;
+        publishedNanos = other.publishedNanos;
+    }
+}
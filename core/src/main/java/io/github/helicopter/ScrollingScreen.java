@@ -0,0 +1,284 @@
+package io.github.helicopter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+import java.io.File;
+
+/**
+ * Side-scrolling helicopter mode. The helicopter flies right through an endless cave whose terrain is streamed
+ * from a world file by {@link TerrainStreamer}; steer up and down past the hills, overhangs and gun emplacements.
+ * The game only moves on while every chunk around the helicopter and on screen is loaded, so nothing can pass through
+ * terrain that has not been read yet; with the loader running ahead of the camera that wait should never happen.
+ */
+public class ScrollingScreen implements GameScreen {
+    private final Main game;
+    private static final String[] HELICOPTER_FRAME_PATHS = {"heli1.png", "heli2.png", "heli3.png", "heli4.png"};
+    private static final String[] EXPLOSION_FRAME_PATHS = {"attackhelicopter-exploding1.png", "attackhelicopter-exploding2.png"};
+    private static final String GUN_READY_TEXTURE_PATH = "1942gun-ready.png";
+    private static final String WORLD_FILE = "scroller-world.bin";
+    private static final int WORLD_CHUNKS = 4096, CHUNK_COLUMNS = 64, WORLD_HEIGHT = 480;
+    private static final long WORLD_SEED = 1942L;
+    private static final int CACHE_CHUNKS = 16, PREFETCH_CHUNKS = 2, MAX_VISIBLE_CHUNKS = 8;
+    private static final float COLUMN_WIDTH = 16f, FRAME_DURATION = 0.1f, TEXT_PADDING = 10f;
+    private static final float SCROLL_SPEED = 240f, CLIMB_SPEED = 300f, FALL_SPEED = 400f, BULLET_SPEED = 500f;
+    private static final float HELI_SCREEN_X = 120f, HITBOX_INSET = 8f, BULLET_SIZE = 6f;
+    private static final int FRAME_WIDTH = 130, FRAME_HEIGHT = 52, GUN_WIDTH = 25, GUN_HEIGHT = 60, MAX_BULLETS = 32;
+    private static final float MIN_FIRE_INTERVAL = 1.0f, MAX_FIRE_INTERVAL = 2.5f;
+    private static final float MAX_FRAME_DELTA = 0.25f;
+    private static final int SIM_TICKS_PER_SECOND = 120;
+    private static final float SIM_TICK = 1f / SIM_TICKS_PER_SECOND;
+    private static final Color SKY_COLOR = new Color(0.08f, 0.08f, 0.14f, 1f);
+    private static final Color ROCK_COLOR = new Color(0.35f, 0.28f, 0.2f, 1f);
+
+    private SpriteBatch batch;
+    private ShapeRenderer shapeRenderer;
+    private BitmapFont font;
+    private Texture[] helicopterTextures, explosionTextures;
+    private Texture gunTexture, currentExplosionTexture;
+    private Animation<TextureRegion> helicopterAnimation;
+    private TerrainStreamer streamer;
+    private final TerrainChunk[] visibleChunks = new TerrainChunk[MAX_VISIBLE_CHUNKS];
+    private int firstVisibleChunk = 0, visibleChunkCount = 0;
+
+    private double cameraX = 0;
+    private float heliY = 0f, targetY = 0f, stateTime = 0f, scale = 1f, tickAccumulator = 0f;
+    private boolean isExploded = false;
+    private final float[] bulletX = new float[MAX_BULLETS], bulletY = new float[MAX_BULLETS];
+    private final boolean[] bulletActive = new boolean[MAX_BULLETS];
+    private final TimerWheel timers = new TimerWheel();
+    private final TimerWheel.Timer volleyTimer = new TimerWheel.Timer(this::fireVolley);
+    private final StringBuilder distanceText = new StringBuilder();
+
+    public ScrollingScreen(Main game) { this.game = game; }
+
+    @Override
+    public void show() {
+        batch = new SpriteBatch();
+        shapeRenderer = new ShapeRenderer();
+        font = new BitmapFont();
+        font.setColor(Color.WHITE);
+        helicopterTextures = new Texture[HELICOPTER_FRAME_PATHS.length];
+        TextureRegion[] frames = new TextureRegion[HELICOPTER_FRAME_PATHS.length];
+        for (int i = 0; i < HELICOPTER_FRAME_PATHS.length; i++) {
+            helicopterTextures[i] = HelicopterScreen.loadTextureWithTransparency(HELICOPTER_FRAME_PATHS[i]);
+            frames[i] = new TextureRegion(helicopterTextures[i]);
+            frames[i].flip(true, false);
+        }
+        helicopterAnimation = new Animation<>(FRAME_DURATION, frames);
+        helicopterAnimation.setPlayMode(Animation.PlayMode.LOOP);
+        explosionTextures = new Texture[EXPLOSION_FRAME_PATHS.length];
+        for (int i = 0; i < EXPLOSION_FRAME_PATHS.length; i++)
+            explosionTextures[i] = HelicopterScreen.loadTextureWithTransparency(EXPLOSION_FRAME_PATHS[i]);
+        gunTexture = HelicopterScreen.loadTextureWithTransparency(GUN_READY_TEXTURE_PATH);
+
+        streamer = openWorld(Main.dataFile(WORLD_FILE));
+        resetGame();
+    }
+
+    /** Opens the scroller's world for streaming, generating the file first if it is missing or has another layout. */
+    public static TerrainStreamer openWorld(File worldFile) {
+        TerrainFile world = new TerrainFile(CHUNK_COLUMNS, WORLD_CHUNKS, WORLD_HEIGHT);
+        if (!world.matches(worldFile)) world.generate(worldFile, WORLD_SEED);
+        return new TerrainStreamer(worldFile, CACHE_CHUNKS, PREFETCH_CHUNKS);
+    }
+
+    private void resetGame() {
+        cameraX = 0;
+        heliY = targetY = (WORLD_HEIGHT - FRAME_HEIGHT) / 2f;
+        isExploded = false;
+        currentExplosionTexture = null;
+        stateTime = tickAccumulator = 0f;
+        scale = Math.max(Gdx.graphics.getHeight(), 1f) / WORLD_HEIGHT;
+        for (int i = 0; i < MAX_BULLETS; i++) bulletActive[i] = false;
+        timers.cancelAll();
+        scheduleNextVolley();
+        updateVisibleChunks();
+        streamer.awaitPinned(1000);
+        updateVisibleChunks();
+    }
+
+    @Override
+    public void render(float delta) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) { game.setScreen(Main.SCREEN_MENU); return; }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) { resetGame(); return; }
+        float sw = Gdx.graphics.getWidth(), sh = Gdx.graphics.getHeight();
+        scale = Math.max(sh, 1f) / WORLD_HEIGHT;
+        if (Gdx.input.isTouched()) targetY = (sh - Gdx.input.getY()) / scale - FRAME_HEIGHT / 2f;
+        if (Gdx.input.isKeyPressed(Input.Keys.UP)) targetY = heliY + CLIMB_SPEED * delta;
+        if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) targetY = heliY - CLIMB_SPEED * delta;
+        targetY = Math.max(0, Math.min(targetY, WORLD_HEIGHT - FRAME_HEIGHT));
+
+        if (visibleChunksLoaded()) {
+            delta = Math.min(delta, MAX_FRAME_DELTA);
+            stateTime += delta;
+            tickAccumulator += delta;
+            while (tickAccumulator >= SIM_TICK) { tickAccumulator -= SIM_TICK; timers.tick(); }
+            if (isExploded) {
+                float floor = groundAt(cameraX + HELI_SCREEN_X + FRAME_WIDTH / 2f);
+                heliY = Math.max(floor, heliY - FALL_SPEED * delta);
+            } else {
+                cameraX += SCROLL_SPEED * delta;
+                float step = CLIMB_SPEED * delta, dy = targetY - heliY;
+                heliY += Math.abs(dy) <= step ? dy : Math.signum(dy) * step;
+            }
+            updateVisibleChunks();
+            updateBullets(delta);
+            if (!isExploded && checkTerrainCollision()) triggerExplosion();
+        } else {
+            updateVisibleChunks();
+        }
+
+        ScreenUtils.clear(SKY_COLOR);
+        float viewWidth = sw / scale;
+        long firstColumn = (long) Math.floor(cameraX / COLUMN_WIDTH), lastColumn = (long) Math.floor((cameraX + viewWidth) / COLUMN_WIDTH);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(ROCK_COLOR);
+        for (long column = firstColumn; column <= lastColumn; column++) {
+            TerrainChunk chunk = chunkForColumn(column);
+            if (chunk == null) continue;
+            int local = (int) Math.floorMod(column, (long) CHUNK_COLUMNS);
+            float x = toScreenX(column * COLUMN_WIDTH), w = COLUMN_WIDTH * scale + 1;
+            shapeRenderer.rect(x, 0, w, chunk.ground(local) * scale);
+            shapeRenderer.rect(x, chunk.ceiling(local) * scale, w, (WORLD_HEIGHT - chunk.ceiling(local)) * scale);
+        }
+        shapeRenderer.setColor(Color.YELLOW);
+        for (int i = 0; i < MAX_BULLETS; i++)
+            if (bulletActive[i]) shapeRenderer.rect(toScreenX(bulletX[i]), bulletY[i] * scale, BULLET_SIZE * scale, BULLET_SIZE * scale);
+        shapeRenderer.end();
+
+        batch.begin();
+        for (long column = firstColumn - 2; column <= lastColumn; column++) {
+            TerrainChunk chunk = chunkForColumn(column);
+            int local = (int) Math.floorMod(column, (long) CHUNK_COLUMNS);
+            if (chunk == null || chunk.feature(local) != TerrainFile.FEATURE_GUN) continue;
+            batch.draw(gunTexture, toScreenX(column * COLUMN_WIDTH), chunk.ground(local) * scale, GUN_WIDTH * scale, GUN_HEIGHT * scale);
+        }
+        float hx = HELI_SCREEN_X * scale, hy = heliY * scale;
+        if (isExploded) batch.draw(currentExplosionTexture, hx, hy, FRAME_WIDTH * scale, FRAME_HEIGHT * scale);
+        else batch.draw(helicopterAnimation.getKeyFrame(stateTime), hx, hy, FRAME_WIDTH * scale, FRAME_HEIGHT * scale);
+        distanceText.setLength(0);
+        distanceText.append("Distance: ").append((long) (cameraX / COLUMN_WIDTH)).append(" m");
+        font.draw(batch, distanceText, TEXT_PADDING, sh - TEXT_PADDING);
+        font.draw(batch, "ESC: Menu | R: Restart | UP/DOWN or Click: Climb/Dive", TEXT_PADDING, 25);
+        batch.end();
+    }
+
+    /**
+     * Requests the chunks on screen, and on a narrow screen far enough right to cover the helicopter after the
+     * longest frame step too, so a frame that starts with them all loaded keeps the helicopter on loaded terrain.
+     */
+    private void updateVisibleChunks() {
+        float viewWidth = Math.max(Gdx.graphics.getWidth() / scale, HELI_SCREEN_X + FRAME_WIDTH + SCROLL_SPEED * MAX_FRAME_DELTA);
+        long chunkWidth = (long) (CHUNK_COLUMNS * COLUMN_WIDTH);
+        firstVisibleChunk = (int) Math.floorDiv((long) Math.floor(cameraX) - 2 * (long) COLUMN_WIDTH, chunkWidth);
+        int lastVisibleChunk = (int) Math.floorDiv((long) Math.floor(cameraX + viewWidth), chunkWidth);
+        lastVisibleChunk = Math.min(lastVisibleChunk, firstVisibleChunk + MAX_VISIBLE_CHUNKS - 1);
+        visibleChunkCount = lastVisibleChunk - firstVisibleChunk + 1;
+        streamer.request(firstVisibleChunk, lastVisibleChunk, visibleChunks);
+        for (int i = visibleChunkCount; i < MAX_VISIBLE_CHUNKS; i++) visibleChunks[i] = null;
+    }
+
+    private boolean visibleChunksLoaded() {
+        for (int i = 0; i < visibleChunkCount; i++) if (visibleChunks[i] == null) return false;
+        return true;
+    }
+
+    private TerrainChunk chunkForColumn(long column) {
+        long slot = Math.floorDiv(column, (long) CHUNK_COLUMNS) - firstVisibleChunk;
+        return slot >= 0 && slot < MAX_VISIBLE_CHUNKS ? visibleChunks[(int) slot] : null;
+    }
+
+    private float groundAt(double worldX) {
+        long column = (long) Math.floor(worldX / COLUMN_WIDTH);
+        TerrainChunk chunk = chunkForColumn(column);
+        return chunk == null ? 0 : chunk.ground((int) Math.floorMod(column, (long) CHUNK_COLUMNS));
+    }
+
+    private float toScreenX(double worldX) { return (float) (worldX - cameraX) * scale; }
+
+    /** Hits against cave walls and gun emplacements, using a hitbox inset from the sprite's transparent edges. */
+    private boolean checkTerrainCollision() {
+        double left = cameraX + HELI_SCREEN_X + HITBOX_INSET, right = cameraX + HELI_SCREEN_X + FRAME_WIDTH - HITBOX_INSET;
+        float bottom = heliY + HITBOX_INSET, top = heliY + FRAME_HEIGHT - HITBOX_INSET;
+        long firstColumn = (long) Math.floor(left / COLUMN_WIDTH) - 1, lastColumn = (long) Math.floor(right / COLUMN_WIDTH);
+        for (long column = firstColumn; column <= lastColumn; column++) {
+            TerrainChunk chunk = chunkForColumn(column);
+            if (chunk == null) return true; // counts as rock, though the game only moves on with these chunks loaded
+            int local = (int) Math.floorMod(column, (long) CHUNK_COLUMNS);
+            double columnX = column * COLUMN_WIDTH;
+            if (columnX + COLUMN_WIDTH > left && (bottom < chunk.ground(local) || top > chunk.ceiling(local))) return true;
+            if (chunk.feature(local) == TerrainFile.FEATURE_GUN && columnX + GUN_WIDTH > left && columnX < right
+                && bottom < chunk.ground(local) + GUN_HEIGHT) return true;
+        }
+        return false;
+    }
+
+    private void updateBullets(float delta) {
+        double left = cameraX + HELI_SCREEN_X + HITBOX_INSET, right = cameraX + HELI_SCREEN_X + FRAME_WIDTH - HITBOX_INSET;
+        for (int i = 0; i < MAX_BULLETS; i++) {
+            if (!bulletActive[i]) continue;
+            bulletY[i] += BULLET_SPEED * delta;
+            if (bulletY[i] > WORLD_HEIGHT || bulletX[i] < cameraX - COLUMN_WIDTH) { bulletActive[i] = false; continue; }
+            if (!isExploded && bulletX[i] + BULLET_SIZE > left && bulletX[i] < right
+                && bulletY[i] + BULLET_SIZE > heliY + HITBOX_INSET && bulletY[i] < heliY + FRAME_HEIGHT - HITBOX_INSET) {
+                bulletActive[i] = false;
+                triggerExplosion();
+            }
+        }
+    }
+
+    /** Every gun emplacement on screen ahead of the helicopter fires one bullet straight up. */
+    private void fireVolley() {
+        scheduleNextVolley();
+        if (isExploded) return;
+        float viewWidth = Gdx.graphics.getWidth() / scale;
+        long firstColumn = (long) Math.floor((cameraX + HELI_SCREEN_X) / COLUMN_WIDTH), lastColumn = (long) Math.floor((cameraX + viewWidth) / COLUMN_WIDTH);
+        for (long column = firstColumn; column <= lastColumn; column++) {
+            TerrainChunk chunk = chunkForColumn(column);
+            int local = (int) Math.floorMod(column, (long) CHUNK_COLUMNS);
+            if (chunk == null || chunk.feature(local) != TerrainFile.FEATURE_GUN) continue;
+            for (int i = 0; i < MAX_BULLETS; i++) {
+                if (bulletActive[i]) continue;
+                bulletActive[i] = true;
+                bulletX[i] = column * COLUMN_WIDTH + (GUN_WIDTH - BULLET_SIZE) / 2f;
+                bulletY[i] = chunk.ground(local) + GUN_HEIGHT;
+                break;
+            }
+        }
+    }
+
+    private void scheduleNextVolley() {
+        float seconds = MIN_FIRE_INTERVAL + (float) Math.random() * (MAX_FIRE_INTERVAL - MIN_FIRE_INTERVAL);
+        timers.schedule(volleyTimer, Math.round(seconds * SIM_TICKS_PER_SECOND));
+    }
+
+    private void triggerExplosion() {
+        isExploded = true;
+        currentExplosionTexture = explosionTextures[(int) (Math.random() * explosionTextures.length)];
+    }
+
+    @Override public void hide() {
+        if (streamer != null) { streamer.close(); streamer = null; }
+    }
+
+    @Override public void pause() {}
+    @Override public void resume() {}
+
+    @Override public void dispose() {
+        hide();
+        if (batch != null) batch.dispose();
+        if (shapeRenderer != null) shapeRenderer.dispose();
+        if (font != null) font.dispose();
+        if (helicopterTextures != null) for (Texture t : helicopterTextures) if (t != null) t.dispose();
+        if (explosionTextures != null) for (Texture t : explosionTextures) if (t != null) t.dispose();
+        if (gunTexture != null) gunTexture.dispose();
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.helicopter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a simulation tick at a fixed rate on its own thread, so a slow tick no longer lengthens the frame on the GL
+ * thread. Between ticks the thread parks until the next deadline; if it falls more than {@link #MAX_CATCH_UP_TICKS}
+ * behind (a long stall), it drops the backlog instead of spiralling. If a tick throws, the thread stops and the error
+ * is rethrown on the GL thread, so the app fails the same way as for an error in rendering.
+ */
+public final class SimulationThread {
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final String name;
+    private final Runnable tick;
+    private final long tickNanos;
+    private volatile boolean running = false;
+    private volatile long ticks = 0, droppedTicks = 0, maxTickNanos = 0;
+    private Thread thread;
+
+    public SimulationThread(String name, int ticksPerSecond, Runnable tick) {
+        this.name = name;
+        this.tick = tick;
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+    }
+
+    public long getTickNanos() { return tickNanos; }
+    public boolean isRunning() { return running; }
+    public long getTicks() { return ticks; }
+    public long getDroppedTicks() { return droppedTicks; }
+    public long getMaxTickNanos() { return maxTickNanos; }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Stops the thread and waits for the tick in progress; afterwards the caller owns the simulation state again. */
+    public void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        thread = null;
+    }
+
+    private void run() {
+        try {
+            long next = System.nanoTime();
+            while (running) {
+                long now = System.nanoTime();
+                if (now < next) {
+                    LockSupport.parkNanos(next - now);
+                    continue;
+                }
+                if (now - next > MAX_CATCH_UP_TICKS * tickNanos) {
+                    droppedTicks += (now - next) / tickNanos;
+                    next = now;
+                }
+                tick.run();
+                long elapsed = System.nanoTime() - now;
+                if (elapsed > maxTickNanos) maxTickNanos = elapsed;
+                ticks++;
+                next += tickNanos;
+            }
+        } catch (Throwable failure) {
+            running = false;
+            if (Gdx.app == null) throw failure;
+            Gdx.app.postRunnable(() -> { throw new GdxRuntimeException("Simulation thread " + name + " failed", failure); });
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.helicopter;
+
+import java.nio.ByteBuffer;
+
+/** One decoded chunk of terrain columns. Instances are pooled by {@link TerrainStreamer} and refilled in place. */
+public final class TerrainChunk {
+    private final short[] ground, ceiling;
+    private final byte[] features;
+    int index;
+
+    TerrainChunk(int columns) {
+        ground = new short[columns];
+        ceiling = new short[columns];
+        features = new byte[columns];
+    }
+
+    /** World chunk index this chunk currently holds. */
+    public int getIndex() { return index; }
+    public int getColumns() { return ground.length; }
+    public int ground(int column) { return ground[column]; }
+    public int ceiling(int column) { return ceiling[column]; }
+    public byte feature(int column) { return features[column]; }
+
+    void read(ByteBuffer source, int offset) {
+        for (int i = 0; i < ground.length; i++, offset += TerrainFile.COLUMN_BYTES) {
+            ground[i] = source.getShort(offset);
+            ceiling[i] = source.getShort(offset + 2);
+            features[i] = source.get(offset + 4);
+        }
+    }
+}
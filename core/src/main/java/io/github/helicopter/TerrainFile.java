@@ -0,0 +1,105 @@
+package io.github.helicopter;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+/**
+ * Binary layout of a scroller world. A 20-byte big-endian header (magic, version, columns per chunk, chunk count,
+ * world height) is followed by fixed-size chunk records, so chunk {@code i} always lives at
+ * {@link #chunkOffset(int)}. Each column is 5 bytes: ground height and ceiling height as shorts, then a feature byte.
+ * Channels come from file streams rather than {@code java.nio.file}, which Android only has from API 26.
+ */
+public final class TerrainFile {
+    public static final int MAGIC = 0x4854524E; // "HTRN"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 20;
+    public static final int COLUMN_BYTES = 5;
+    public static final byte FEATURE_NONE = 0, FEATURE_GUN = 1;
+
+    private static final int MIN_GROUND = 20, MIN_GAP = 200, MAX_GAP = 380, MAX_SLOPE = 4;
+    private static final int GUN_SPACING = 24, GUN_CHANCE = 30;
+
+    public final int chunkColumns, chunkCount, worldHeight;
+
+    public TerrainFile(int chunkColumns, int chunkCount, int worldHeight) {
+        this.chunkColumns = chunkColumns;
+        this.chunkCount = chunkCount;
+        this.worldHeight = worldHeight;
+    }
+
+    public int chunkBytes() { return chunkColumns * COLUMN_BYTES; }
+    public long chunkOffset(int index) { return HEADER_BYTES + (long) index * chunkBytes(); }
+
+    /** Reads and validates the header; returns null if the file is not a world file of this version. */
+    public static TerrainFile readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) if (channel.read(header, header.position()) < 0) return null;
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) return null;
+        TerrainFile file = new TerrainFile(header.getInt(), header.getInt(), header.getInt());
+        if (file.chunkColumns <= 0 || file.chunkCount <= 0 || channel.size() < file.chunkOffset(file.chunkCount)) return null;
+        return file;
+    }
+
+    /** Returns true if {@code file} already holds a world with exactly this layout. */
+    public boolean matches(File file) {
+        if (!file.isFile()) return false;
+        try (FileChannel channel = new FileInputStream(file).getChannel()) {
+            TerrainFile existing = readHeader(channel);
+            return existing != null && existing.chunkColumns == chunkColumns && existing.chunkCount == chunkCount
+                && existing.worldHeight == worldHeight;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes a procedurally generated cave of hills, overhangs and gun emplacements one chunk at a time, so
+     * generating a huge world needs no more memory than a single chunk. The last chunk blends back into the first
+     * so the world can be scrolled endlessly.
+     */
+    public void generate(File file, long seed) {
+        Random random = new Random(seed);
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(HEADER_BYTES, chunkBytes()));
+        try (FileChannel channel = new FileOutputStream(file).getChannel()) {
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(chunkColumns).putInt(chunkCount).putInt(worldHeight).flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            int startGround = MIN_GROUND * 3, startGap = (MIN_GAP + MAX_GAP) / 2;
+            int ground = startGround, gap = startGap, slope = 0, sinceGun = 0;
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                buffer.clear();
+                for (int column = 0; column < chunkColumns; column++) {
+                    byte feature = FEATURE_NONE;
+                    if (sinceGun > GUN_SPACING && chunk < chunkCount - 1 && random.nextInt(GUN_CHANCE) == 0) {
+                        feature = FEATURE_GUN;
+                        sinceGun = 0;
+                        slope = 0;
+                    } else if (sinceGun++ > 2) {
+                        slope = Math.max(-MAX_SLOPE, Math.min(MAX_SLOPE, slope + random.nextInt(3) - 1));
+                        ground = Math.max(MIN_GROUND, Math.min(worldHeight - MIN_GAP - MIN_GROUND, ground + slope));
+                        gap = Math.max(MIN_GAP, Math.min(MAX_GAP, gap + random.nextInt(9) - 4));
+                    }
+                    int columnGround = ground, columnGap = gap;
+                    if (chunk == chunkCount - 1) {
+                        float t = (column + 1) / (float) chunkColumns;
+                        columnGround = Math.round(ground + (startGround - ground) * t);
+                        columnGap = Math.round(gap + (startGap - gap) * t);
+                    }
+                    buffer.putShort((short) columnGround);
+                    buffer.putShort((short) Math.min(worldHeight, columnGround + columnGap));
+                    buffer.put(feature);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write terrain file " + file, e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.helicopter;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Streams terrain chunks of a {@link TerrainFile} around the camera. The render thread pins the chunks it needs
+ * with {@link #request}, which never blocks on I/O; a background loader thread reads each missing chunk with a
+ * positional read into one reused buffer and decodes it into a fixed pool of {@link TerrainChunk}s, evicting the
+ * least recently used chunk outside the pinned range. Memory stays the same size however large the world file is.
+ * World chunk indices wrap around the file, so the world scrolls endlessly.
+ */
+public final class TerrainStreamer {
+    public static final String LOADER_THREAD_NAME = "terrain-loader";
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private final FileChannel channel;
+    private final TerrainFile terrain;
+    private final int prefetchChunks;
+    private final Thread loader;
+
+    // Guarded by lock.
+    private final Object lock = new Object();
+    private final TerrainChunk[] slots;
+    private final int[] slotIndex;
+    private final boolean[] slotReady;
+    private final long[] lastUsed;
+    private int pinnedFirst = 0, pinnedLast = -1;
+    private long useStamp = 0;
+    private boolean running = true;
+    private IOException failure;
+
+    // Owned by the loader thread.
+    private final ByteBuffer chunkBuffer;
+
+    public TerrainStreamer(File file, int cacheChunks, int prefetchChunks) {
+        try {
+            channel = new FileInputStream(file).getChannel();
+            terrain = TerrainFile.readHeader(channel);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't open terrain file " + file, e);
+        }
+        if (terrain == null) throw new GdxRuntimeException("Not a terrain file: " + file);
+        this.prefetchChunks = prefetchChunks;
+        chunkBuffer = ByteBuffer.allocateDirect(terrain.chunkBytes());
+        slots = new TerrainChunk[cacheChunks];
+        slotIndex = new int[cacheChunks];
+        slotReady = new boolean[cacheChunks];
+        lastUsed = new long[cacheChunks];
+        for (int i = 0; i < cacheChunks; i++) {
+            slots[i] = new TerrainChunk(terrain.chunkColumns);
+            slotIndex[i] = EMPTY;
+        }
+        loader = new Thread(this::runLoader, LOADER_THREAD_NAME);
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public TerrainFile getTerrain() { return terrain; }
+
+    /**
+     * Pins chunks {@code first..last} (plus the prefetch margin) and fills {@code out[i - first]} with each chunk
+     * that is loaded, or null if the loader has not reached it yet. Chunks handed out stay valid until the next call.
+     */
+    public void request(int first, int last, TerrainChunk[] out) {
+        synchronized (lock) {
+            if (failure != null) throw new GdxRuntimeException("Couldn't stream terrain", failure);
+            pinnedFirst = first - prefetchChunks;
+            pinnedLast = last + prefetchChunks;
+            useStamp++;
+            boolean missing = false;
+            for (int index = pinnedFirst; index <= pinnedLast; index++) {
+                int slot = findSlot(index);
+                if (slot < 0) missing = true;
+                else lastUsed[slot] = useStamp;
+                if (index >= first && index <= last) out[index - first] = slot >= 0 && slotReady[slot] ? slots[slot] : null;
+            }
+            if (missing) lock.notify();
+        }
+    }
+
+    /** Blocks until every chunk of the last request is loaded; used once when the screen is shown. */
+    public boolean awaitPinned(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            while (true) {
+                if (failure != null) throw new GdxRuntimeException("Couldn't stream terrain", failure);
+                boolean loaded = true;
+                for (int index = pinnedFirst; index <= pinnedLast && loaded; index++) {
+                    int slot = findSlot(index);
+                    loaded = slot >= 0 && slotReady[slot];
+                }
+                long wait = deadline - System.currentTimeMillis();
+                if (loaded || wait <= 0) return loaded;
+                try {
+                    lock.wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    public void close() {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            loader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void runLoader() {
+        while (true) {
+            int index = EMPTY, slot = -1;
+            synchronized (lock) {
+                while (running) {
+                    index = nextMissing();
+                    slot = index == EMPTY ? -1 : pickVictim();
+                    if (slot >= 0) break;
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) return;
+                slotIndex[slot] = index;
+                slotReady[slot] = false;
+                lastUsed[slot] = useStamp;
+            }
+            try {
+                load(index, slots[slot]);
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    slotIndex[slot] = EMPTY;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            synchronized (lock) {
+                slotReady[slot] = true;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /** Visible chunks first, then the ones ahead, then the ones behind. */
+    private int nextMissing() {
+        int visibleFirst = pinnedFirst + prefetchChunks;
+        for (int index = visibleFirst; index <= pinnedLast; index++) if (findSlot(index) < 0) return index;
+        for (int index = visibleFirst - 1; index >= pinnedFirst; index--) if (findSlot(index) < 0) return index;
+        return EMPTY;
+    }
+
+    private int pickVictim() {
+        int victim = -1;
+        for (int i = 0; i < slots.length; i++) {
+            if (slotIndex[i] == EMPTY) return i;
+            if (slotIndex[i] >= pinnedFirst && slotIndex[i] <= pinnedLast) continue;
+            if (victim < 0 || lastUsed[i] < lastUsed[victim]) victim = i;
+        }
+        return victim;
+    }
+
+    private int findSlot(int index) {
+        for (int i = 0; i < slotIndex.length; i++) if (slotIndex[i] == index) return i;
+        return -1;
+    }
+
+    private void load(int index, TerrainChunk chunk) throws IOException {
+        long offset = terrain.chunkOffset(Math.floorMod(index, terrain.chunkCount));
+        chunkBuffer.clear();
+        while (chunkBuffer.hasRemaining()) {
+            if (channel.read(chunkBuffer, offset + chunkBuffer.position()) < 0) throw new IOException("Terrain file is truncated");
+        }
+        chunk.index = index;
+        chunk.read(chunkBuffer, 0);
+    }
+}
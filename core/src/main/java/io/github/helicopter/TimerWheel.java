@@ -0,0 +1,141 @@
+package io.github.helicopter;
+
+/**
+ * Hierarchical timing wheel that fires game events on simulation ticks. A root wheel of 256 one-tick slots is
+ * backed by three coarser wheels of 64 slots each; timers further out are cascaded down as their slot comes
+ * around. Scheduling and cancelling are O(1), and because the {@link Timer} objects are intrusive list nodes
+ * owned by the caller, the wheel never allocates once it has been constructed.
+ */
+public final class TimerWheel {
+    private static final int ROOT_BITS = 8, LEVEL_BITS = 6, LEVELS = 4;
+    private static final int ROOT_SIZE = 1 << ROOT_BITS, LEVEL_SIZE = 1 << LEVEL_BITS;
+    private static final int ROOT_MASK = ROOT_SIZE - 1, LEVEL_MASK = LEVEL_SIZE - 1;
+    /** Longer delays are parked in the outermost wheel and re-cascaded until they come within range. */
+    private static final long MAX_SLOT_DELAY = (1L << (ROOT_BITS + (LEVELS - 1) * LEVEL_BITS)) - 1;
+
+    /** A schedulable event. Create one per behavior up front and reuse it; rescheduling moves it. */
+    public static final class Timer {
+        private final Runnable action;
+        private Timer prev, next;
+        private long deadline;
+
+        public Timer(Runnable action) { this.action = action; }
+
+        public boolean isScheduled() { return next != null; }
+        public long getDeadline() { return deadline; }
+    }
+
+    private final Timer[] slots = new Timer[ROOT_SIZE + (LEVELS - 1) * LEVEL_SIZE];
+    private final Timer pending = newSentinel();
+    private long elapsedTicks = 0;
+    private int size = 0;
+
+    public TimerWheel() {
+        for (int i = 0; i < slots.length; i++) slots[i] = newSentinel();
+    }
+
+    private static Timer newSentinel() {
+        Timer sentinel = new Timer(null);
+        sentinel.prev = sentinel.next = sentinel;
+        return sentinel;
+    }
+
+    /** Schedules {@code timer} to fire after {@code delayTicks} calls to {@link #tick()} (at least one). */
+    public void schedule(Timer timer, long delayTicks) {
+        if (timer.isScheduled()) unlink(timer);
+        else size++;
+        timer.deadline = elapsedTicks + Math.max(1L, delayTicks);
+        add(timer);
+    }
+
+    /** Cancels {@code timer}; returns false if it was not scheduled. */
+    public boolean cancel(Timer timer) {
+        if (!timer.isScheduled()) return false;
+        unlink(timer);
+        timer.prev = timer.next = null;
+        size--;
+        return true;
+    }
+
+    public void cancelAll() {
+        for (Timer slot : slots) {
+            while (slot.next != slot) cancel(slot.next);
+        }
+        while (pending.next != pending) cancel(pending.next);
+    }
+
+    /** Advances the wheel by one tick and runs every timer due on it. Timers may reschedule themselves. */
+    public void tick() {
+        elapsedTicks++;
+        int index = (int) (elapsedTicks & ROOT_MASK);
+        if (index == 0) {
+            int shift = ROOT_BITS;
+            for (int level = 1; level < LEVELS; level++, shift += LEVEL_BITS) {
+                int levelIndex = (int) ((elapsedTicks >>> shift) & LEVEL_MASK);
+                cascade(slots[ROOT_SIZE + (level - 1) * LEVEL_SIZE + levelIndex]);
+                if (levelIndex != 0) break;
+            }
+        }
+        moveAll(slots[index], pending);
+        while (pending.next != pending) {
+            Timer timer = pending.next;
+            cancel(timer);
+            timer.action.run();
+        }
+    }
+
+    public void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) tick();
+    }
+
+    public long getElapsedTicks() { return elapsedTicks; }
+
+    /** Ticks left until {@code timer} fires, or 0 if it is not scheduled. */
+    public long remainingTicks(Timer timer) {
+        return timer.isScheduled() ? timer.deadline - elapsedTicks : 0;
+    }
+
+    public int size() { return size; }
+
+    private void add(Timer timer) {
+        long delay = timer.deadline - elapsedTicks;
+        Timer slot;
+        if (delay < ROOT_SIZE) {
+            slot = slots[(int) (timer.deadline & ROOT_MASK)];
+        } else {
+            long expires = delay > MAX_SLOT_DELAY ? elapsedTicks + MAX_SLOT_DELAY : timer.deadline;
+            long range = expires - elapsedTicks;
+            int level = 1, shift = ROOT_BITS;
+            while (range >= 1L << (shift + LEVEL_BITS)) { level++; shift += LEVEL_BITS; }
+            slot = slots[ROOT_SIZE + (level - 1) * LEVEL_SIZE + (int) ((expires >>> shift) & LEVEL_MASK)];
+        }
+        timer.prev = slot.prev;
+        timer.next = slot;
+        slot.prev.next = timer;
+        slot.prev = timer;
+    }
+
+    /** Re-files every timer in an outer slot against the current tick, moving it inward. */
+    private void cascade(Timer slot) {
+        moveAll(slot, pending);
+        while (pending.next != pending) {
+            Timer timer = pending.next;
+            unlink(timer);
+            add(timer);
+        }
+    }
+
+    private static void moveAll(Timer from, Timer to) {
+        if (from.next == from) return;
+        to.next = from.next;
+        to.prev = from.prev;
+        to.next.prev = to;
+        to.prev.next = to;
+        from.prev = from.next = from;
+    }
+
+    private static void unlink(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.helicopter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer handing preallocated state objects from one producer thread to one consumer thread.
+ * The producer fills {@link #back()} and calls {@link #publish()}; the consumer calls {@link #update()} and reads
+ * {@link #front()}. Each side owns one buffer and they trade through the middle one with a single atomic swap,
+ * so neither thread ever waits for the other and the consumer always sees the newest complete state.
+ */
+public final class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3, FRESH = 4;
+
+    private final Object[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0, front = 2;
+
+    public TripleBuffer(T first, T second, T third) {
+        buffers = new Object[] {first, second, third};
+    }
+
+    /** Producer side: the buffer to fill before the next {@link #publish()}. */
+    @SuppressWarnings("unchecked")
+    public T back() { return (T) buffers[back]; }
+
+    /** Producer side: makes the back buffer the newest state and takes over the previous middle buffer. */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /** Consumer side: returns true if a newer state was published since the last call. */
+    public boolean hasUpdate() { return (middle.get() & FRESH) != 0; }
+
+    /** Consumer side: swaps in the newest published state, if any; returns false if {@link #front()} is unchanged. */
+    public boolean update() {
+        if (!hasUpdate()) return false;
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return true;
+    }
+
+    /** Consumer side: the newest state, valid until the next {@link #update()}. */
+    @SuppressWarnings("unchecked")
+    public T front() { return (T) buffers[front]; }
+}
@@ -0,0 +1,61 @@
+package io.github.helicopter.lwjgl3;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import java.io.File;
+
+/** Wraps the game and records what it draws with a {@link FrameCapture}; F12 stops and restarts the recording. */
+public class CaptureApplication implements ApplicationListener {
+    private static final int QUEUED_FRAMES = 8;
+
+    private final ApplicationListener game;
+    private final FrameCapture capture;
+    private boolean created = false;
+
+    public CaptureApplication(ApplicationListener game, FrameCapture capture) {
+        this.game = game;
+        this.capture = capture;
+    }
+
+    public CaptureApplication(ApplicationListener game, File directory, int format) {
+        this(game, new FrameCapture(directory, format, QUEUED_FRAMES));
+    }
+
+    /** Whether the game was started; until then a failed launch can be retried with another configuration. */
+    public boolean isCreated() { return created; }
+
+    @Override
+    public void create() {
+        created = true;
+        game.create();
+        capture.start();
+    }
+
+    @Override
+    public void render() {
+        game.render();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F12)) {
+            if (capture.isRecording()) stopRecording();
+            else capture.start();
+        }
+        capture.capture();
+    }
+
+    private void stopRecording() {
+        capture.stop();
+        FrameEncoder encoder = capture.getEncoder();
+        Gdx.app.log("FrameCapture", String.format("%d frames, %d written, %d dropped (%d readback busy, %d encoder busy) to %s%s",
+            capture.getFrames(), encoder.getWrittenFrames(), capture.getDroppedFrames(), capture.getDroppedReadbackBusy(),
+            capture.getDroppedEncoderBusy(), encoder.getDirectory().getAbsolutePath(),
+            encoder.getError() == null ? "" : " (write failed: " + encoder.getError().getMessage() + ")"));
+    }
+
+    @Override public void resize(int width, int height) { game.resize(width, height); }
+    @Override public void pause() { game.pause(); }
+    @Override public void resume() { game.resume(); }
+    @Override public void dispose() {
+        if (capture.isRecording()) stopRecording();
+        game.dispose();
+    }
+}
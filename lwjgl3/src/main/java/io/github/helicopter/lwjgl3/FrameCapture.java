@@ -0,0 +1,197 @@
+package io.github.helicopter.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.utils.BufferUtils;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Records the back buffer without stalling the render loop. Each frame's {@code glReadPixels} goes into one of two
+ * pixel buffer objects and completes on the GPU while the next frame renders; the previous frame's buffer is only
+ * mapped once its fence has signalled. The pixels are copied once into a pooled frame, which is handed to a
+ * {@link FrameEncoder} thread by reference and returned to the pool after it is written. Nothing on the GL thread
+ * waits: if the GPU has not finished a readback or the encoder has no free frame, the frame is dropped and counted.
+ * Without a GL 3 context there are no pixel buffer objects, so it falls back to a synchronous read into the frame;
+ * the launcher asks for GL 3.2 and retries with plain GL 2 if the driver cannot create that.
+ */
+public final class FrameCapture {
+    public static final int FORMAT_RAW = FrameEncoder.FORMAT_RAW, FORMAT_PPM = FrameEncoder.FORMAT_PPM;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    /** A pooled frame; owned by the GL thread while in the free queue, by the encoder while in the filled queue. */
+    static final class Frame {
+        ByteBuffer pixels = BufferUtils.newByteBuffer(0);
+        int width, height;
+        long number;
+
+        void resize(int width, int height) {
+            int bytes = width * height * BYTES_PER_PIXEL;
+            if (pixels.capacity() < bytes) pixels = BufferUtils.newByteBuffer(bytes);
+            pixels.clear().limit(bytes);
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private final ArrayBlockingQueue<Frame> free, filled;
+    private final FrameEncoder encoder;
+    private final int[] pixelBuffers = new int[2];
+    private final long[] fences = new long[2];
+    private final boolean[] pending = new boolean[2];
+    private final int[] pendingWidth = new int[2], pendingHeight = new int[2];
+    private final long[] pendingFrame = new long[2];
+    private GL30 gl30;
+    private int bufferBytes = 0, slot = 0;
+    private boolean recording = false;
+    private long frames = 0, readbacks = 0, droppedReadbackBusy = 0, droppedEncoderBusy = 0;
+
+    /** @param queuedFrames how many frames may wait for the encoder before new ones are dropped */
+    public FrameCapture(File directory, int format, int queuedFrames) {
+        this(directory, format, queuedFrames, FrameEncoder.FILES);
+    }
+
+    FrameCapture(File directory, int format, int queuedFrames, FrameEncoder.Output output) {
+        free = new ArrayBlockingQueue<>(queuedFrames);
+        filled = new ArrayBlockingQueue<>(queuedFrames);
+        for (int i = 0; i < queuedFrames; i++) free.add(new Frame());
+        encoder = new FrameEncoder(directory, format, output, free, filled);
+    }
+
+    public boolean isRecording() { return recording; }
+    /** Frames seen while recording. */
+    public long getFrames() { return frames; }
+    /** Frames read back and queued for the encoder. */
+    public long getQueuedFrames() { return readbacks - droppedEncoderBusy; }
+    public long getDroppedFrames() { return droppedReadbackBusy + droppedEncoderBusy; }
+    public long getDroppedReadbackBusy() { return droppedReadbackBusy; }
+    public long getDroppedEncoderBusy() { return droppedEncoderBusy; }
+    public FrameEncoder getEncoder() { return encoder; }
+
+    /** Starts a new recording; call on the GL thread. */
+    public void start() {
+        if (recording) return;
+        gl30 = Gdx.gl30;
+        frames = readbacks = droppedReadbackBusy = droppedEncoderBusy = 0;
+        encoder.start();
+        recording = true;
+    }
+
+    /** Reads back the frame just rendered; call on the GL thread after rendering and before the buffer swap. */
+    public void capture() {
+        if (!recording) return;
+        frames++;
+        int width = Gdx.graphics.getBackBufferWidth(), height = Gdx.graphics.getBackBufferHeight();
+        if (gl30 == null) {
+            readImmediately(width, height);
+            return;
+        }
+        if (width * height * BYTES_PER_PIXEL != bufferBytes) resizeBuffers(width * height * BYTES_PER_PIXEL);
+        collectInOrder(false);
+        if (pending[slot]) droppedReadbackBusy++;
+        else {
+            gl30.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, pixelBuffers[slot]);
+            gl30.glPixelStorei(GL20.GL_PACK_ALIGNMENT, 1);
+            gl30.glReadPixels(0, 0, width, height, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, 0);
+            gl30.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, 0);
+            fences[slot] = gl30.glFenceSync(GL30.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+            pendingWidth[slot] = width;
+            pendingHeight[slot] = height;
+            pendingFrame[slot] = frames;
+            pending[slot] = true;
+            slot ^= 1;
+        }
+    }
+
+    /** Stops recording, waits for the last readbacks and for the encoder to write everything queued. */
+    public void stop() {
+        if (!recording) return;
+        recording = false;
+        if (gl30 != null) {
+            collectInOrder(true);
+            deleteBuffers();
+        }
+        encoder.stop();
+    }
+
+    /** Collects finished readbacks oldest first, so frames reach the encoder in order; stops at the first busy one. */
+    private void collectInOrder(boolean wait) {
+        while (pending[0] || pending[1]) {
+            int oldest = !pending[1] || (pending[0] && pendingFrame[0] < pendingFrame[1]) ? 0 : 1;
+            if (!collect(oldest, wait)) return;
+        }
+    }
+
+    /** Maps a finished readback into a pooled frame; returns false if the GPU is still busy with it. */
+    private boolean collect(int s, boolean wait) {
+        int status = wait
+            ? gl30.glClientWaitSync(fences[s], GL30.GL_SYNC_FLUSH_COMMANDS_BIT, Long.MAX_VALUE)
+            : gl30.glClientWaitSync(fences[s], 0, 0);
+        if (status == GL30.GL_TIMEOUT_EXPIRED) return false;
+        gl30.glDeleteSync(fences[s]);
+        pending[s] = false;
+        readbacks++;
+        Frame frame = free.poll();
+        if (frame == null || status == GL30.GL_WAIT_FAILED) {
+            droppedEncoderBusy++;
+            if (frame != null) free.add(frame);
+            return true;
+        }
+        frame.resize(pendingWidth[s], pendingHeight[s]);
+        int bytes = frame.pixels.limit();
+        gl30.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, pixelBuffers[s]);
+        ByteBuffer mapped = (ByteBuffer) gl30.glMapBufferRange(GL30.GL_PIXEL_PACK_BUFFER, 0, bytes, GL30.GL_MAP_READ_BIT);
+        if (mapped != null) {
+            mapped.clear().limit(bytes);
+            frame.pixels.put(mapped).flip();
+        }
+        gl30.glUnmapBuffer(GL30.GL_PIXEL_PACK_BUFFER);
+        gl30.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, 0);
+        if (mapped == null) {
+            droppedEncoderBusy++;
+            free.add(frame);
+            return true;
+        }
+        queue(frame);
+        return true;
+    }
+
+    private void readImmediately(int width, int height) {
+        readbacks++;
+        Frame frame = free.poll();
+        if (frame == null) {
+            droppedEncoderBusy++;
+            return;
+        }
+        frame.resize(width, height);
+        Gdx.gl.glPixelStorei(GL20.GL_PACK_ALIGNMENT, 1);
+        Gdx.gl.glReadPixels(0, 0, width, height, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, frame.pixels);
+        frame.pixels.clear().limit(width * height * BYTES_PER_PIXEL);
+        queue(frame);
+    }
+
+    private void queue(Frame frame) {
+        frame.number = readbacks - droppedEncoderBusy;
+        filled.add(frame); // cannot fail: there are never more frames than the queue holds
+    }
+
+    private void resizeBuffers(int bytes) {
+        collectInOrder(true);
+        deleteBuffers();
+        for (int s = 0; s < 2; s++) {
+            pixelBuffers[s] = gl30.glGenBuffer();
+            gl30.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, pixelBuffers[s]);
+            gl30.glBufferData(GL30.GL_PIXEL_PACK_BUFFER, bytes, null, GL30.GL_STREAM_READ);
+        }
+        gl30.glBindBuffer(GL30.GL_PIXEL_PACK_BUFFER, 0);
+        bufferBytes = bytes;
+    }
+
+    private void deleteBuffers() {
+        if (bufferBytes == 0) return;
+        for (int s = 0; s < 2; s++) gl30.glDeleteBuffer(pixelBuffers[s]);
+        bufferBytes = 0;
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.helicopter.lwjgl3;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes frames captured by {@link FrameCapture} on a background thread, then hands each frame back to the free
+ * pool. {@link #FORMAT_RAW} appends the RGBA pixels as they came from GL (bottom row first) to one
+ * {@code .rgba} file per recording and frame size, ready for ffmpeg's rawvideo demuxer; {@link #FORMAT_PPM} writes
+ * one binary PPM image per frame, flipped upright. Each recording is numbered after the highest one already in the
+ * directory, and files are only ever created new, so earlier recordings are never overwritten.
+ */
+public final class FrameEncoder {
+    public static final int FORMAT_RAW = 0, FORMAT_PPM = 1;
+    private static final String PREFIX = "capture-";
+
+    /** Creates each output file; the check swaps in a slower one to see what a lagging encoder costs. */
+    interface Output {
+        WritableByteChannel create(File file) throws IOException;
+    }
+
+    /** Creates files that must not exist yet; an existing recording is an error, never truncated. */
+    static final Output FILES = file -> FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+    private final File directory;
+    private final int format;
+    private final Output output;
+    private final ArrayBlockingQueue<FrameCapture.Frame> free, filled;
+    private volatile boolean running = false;
+    private volatile long writtenFrames = 0, writtenBytes = 0;
+    private volatile IOException error;
+    private Thread thread;
+
+    // Encoder thread only
+    private int recording, rawSegment;
+    private WritableByteChannel rawChannel;
+    private int rawWidth, rawHeight;
+    private ByteBuffer rgb = ByteBuffer.allocateDirect(0);
+
+    FrameEncoder(File directory, int format, Output output, ArrayBlockingQueue<FrameCapture.Frame> free,
+                 ArrayBlockingQueue<FrameCapture.Frame> filled) {
+        this.directory = directory;
+        this.format = format;
+        this.output = output;
+        this.free = free;
+        this.filled = filled;
+    }
+
+    public long getWrittenFrames() { return writtenFrames; }
+    public long getWrittenBytes() { return writtenBytes; }
+    /** The first write error of the current recording, if any; frames after it are discarded. */
+    public IOException getError() { return error; }
+    public File getDirectory() { return directory; }
+
+    void start() {
+        if (running) return;
+        writtenFrames = writtenBytes = 0;
+        error = null;
+        running = true;
+        thread = new Thread(this::run, "frame-encoder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Writes everything still queued, then stops the thread. */
+    void stop() {
+        if (!running) return;
+        running = false;
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        thread = null;
+    }
+
+    private void run() {
+        recording = nextRecordingNumber();
+        rawSegment = 0;
+        try {
+            while (true) {
+                FrameCapture.Frame frame = filled.poll(10, TimeUnit.MILLISECONDS);
+                if (frame == null) {
+                    if (running) continue;
+                    break;
+                }
+                try {
+                    if (error == null) write(frame);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    free.add(frame);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeRaw();
+        }
+    }
+
+    private void write(FrameCapture.Frame frame) throws IOException {
+        if (format == FORMAT_PPM) writePpm(frame);
+        else writeRaw(frame);
+        writtenFrames++;
+    }
+
+    private void writeRaw(FrameCapture.Frame frame) throws IOException {
+        if (rawChannel == null || frame.width != rawWidth || frame.height != rawHeight) {
+            closeRaw();
+            rawWidth = frame.width;
+            rawHeight = frame.height;
+            // A later segment at a size used before in this recording gets its own file.
+            String segment = ++rawSegment == 1 ? "" : "-" + rawSegment;
+            File file = new File(directory, String.format(PREFIX + "%03d-%dx%d%s.rgba", recording, rawWidth, rawHeight, segment));
+            rawChannel = open(file);
+        }
+        writtenBytes += writeFully(rawChannel, frame.pixels);
+    }
+
+    /** PPM is RGB with the top row first, so this drops alpha and flips rows while copying into a reused buffer. */
+    private void writePpm(FrameCapture.Frame frame) throws IOException {
+        int width = frame.width, height = frame.height;
+        byte[] header = ("P6\n" + width + " " + height + "\n255\n").getBytes(StandardCharsets.US_ASCII);
+        int bytes = header.length + width * height * 3;
+        if (rgb.capacity() < bytes) rgb = ByteBuffer.allocateDirect(bytes);
+        rgb.clear();
+        rgb.put(header);
+        ByteBuffer pixels = frame.pixels;
+        for (int y = height - 1; y >= 0; y--) {
+            int row = y * width * 4;
+            for (int x = 0; x < width; x++) {
+                int i = row + x * 4;
+                rgb.put(pixels.get(i)).put(pixels.get(i + 1)).put(pixels.get(i + 2));
+            }
+        }
+        rgb.flip();
+        File file = new File(directory, String.format(PREFIX + "%03d-%06d.ppm", recording, frame.number));
+        try (WritableByteChannel channel = open(file)) {
+            writtenBytes += writeFully(channel, rgb);
+        }
+    }
+
+    private WritableByteChannel open(File file) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Cannot create " + directory);
+        return output.create(file);
+    }
+
+    /** One more than the highest recording number in the directory, so new files never collide with old ones. */
+    private int nextRecordingNumber() {
+        String[] names = directory.list();
+        int highest = 0;
+        if (names != null) {
+            for (String name : names) {
+                if (!name.startsWith(PREFIX)) continue;
+                int end = name.indexOf('-', PREFIX.length());
+                if (end < 0) continue;
+                try {
+                    highest = Math.max(highest, Integer.parseInt(name.substring(PREFIX.length(), end)));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return highest + 1;
+    }
+
+    private static long writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) written += channel.write(buffer);
+        return written;
+    }
+
+    private void closeRaw() {
+        if (rawChannel == null) return;
+        try {
+            rawChannel.close();
+        } catch (IOException e) {
+            if (error == null) error = e;
+        }
+        rawChannel = null;
+    }
+}
@@ -2,20 +2,47 @@ package io.github.helicopter.lwjgl3;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.ApplicationListener;
 import io.github.helicopter.Main;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
     public static void main(String[] args) {
         if (StartupHelper.startNewJvmIfRequired()) return; // This handles macOS support and helps on Windows.
-        createApplication();
+        createApplication(Arrays.asList(args));
     }
 
-    private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new Main(), getDefaultConfiguration());
+    /**
+     * {@code --threaded-sim} runs the game rules on their own thread; {@code --capture[=directory]} records gameplay
+     * (F12 stops and restarts), as raw RGBA video or, with {@code --capture-format=ppm}, as an image sequence.
+     */
+    private static Lwjgl3Application createApplication(List<String> args) {
+        ApplicationListener game = new Main(args.contains("--threaded-sim"));
+        File captureDirectory = null;
+        int captureFormat = FrameCapture.FORMAT_RAW;
+        for (String arg : args) {
+            if (arg.equals("--capture")) captureDirectory = new File(System.getProperty("user.home"), "helicopter-captures");
+            else if (arg.startsWith("--capture=")) captureDirectory = new File(arg.substring("--capture=".length()));
+            else if (arg.equals("--capture-format=ppm")) captureFormat = FrameCapture.FORMAT_PPM;
+        }
+        Lwjgl3ApplicationConfiguration configuration = getDefaultConfiguration();
+        if (captureDirectory == null) return new Lwjgl3Application(game, configuration);
+        CaptureApplication capture = new CaptureApplication(game, captureDirectory, captureFormat);
+        // Asynchronous readback needs pixel buffer objects, which need a GL 3 context.
+        configuration.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL30, 3, 2);
+        try {
+            return new Lwjgl3Application(capture, configuration);
+        } catch (RuntimeException e) {
+            if (capture.isCreated()) throw e;
+            System.err.println("No GL 3.2 context (" + e.getMessage() + "); recording with synchronous reads instead.");
+            return new Lwjgl3Application(capture, getDefaultConfiguration());
+        }
     }
 
-    private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
+    static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
         Lwjgl3ApplicationConfiguration configuration = new Lwjgl3ApplicationConfiguration();
         configuration.setTitle("Helicopter");
         //// Vsync limits the frames per second to what your hardware can display, and helps eliminate
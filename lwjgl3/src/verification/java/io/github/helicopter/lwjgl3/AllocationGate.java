@@ -0,0 +1,262 @@
+package io.github.helicopter.lwjgl3;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Input;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Window;
+import io.github.helicopter.Main;
+import io.github.helicopter.PongRunner;
+import io.github.helicopter.TerrainStreamer;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Drives every screen of {@link Main} through thousands of frames in a hidden window and fails when a screen's
+ * steady-state frame loop allocates more than the configured budget. Allocations are measured per frame with
+ * {@link com.sun.management.ThreadMXBean}'s per-thread counters, on the GL thread and on the game's own threads (the
+ * Pong simulation thread and the terrain loader), and a JFR recording of the measured frames is used to report which
+ * methods allocated. Every frame advances the game by a fixed 1/60 s whatever the
+ * real frame rate, and a {@link ScriptedInput} plays each screen: steering, crashing, scoring until a Pong game is
+ * over, switching Pong modes and threads, and restarting. The script repeats every {@link #SCRIPT_FRAMES} frames,
+ * so by default one pass warms up and the next is measured. Run it with {@code ./gradlew lwjgl3:allocationGate}.
+ */
+public class AllocationGate implements ApplicationListener {
+    private static final int[] SCREENS = {Main.SCREEN_MENU, Main.SCREEN_HELICOPTER, Main.SCREEN_PONG, Main.SCREEN_SCROLLER};
+    private static final String[] SCREEN_NAMES = {"MainMenuScreen", "HelicopterScreen", "PongScreen", "ScrollingScreen"};
+    private static final int SCRIPT_FRAMES = 4800;
+    private static final float FRAME_DELTA = 1f / 60f;
+    private static final int WARMUP_FRAMES = Integer.getInteger("allocationGate.warmupFrames", SCRIPT_FRAMES);
+    private static final int MEASURED_FRAMES = Integer.getInteger("allocationGate.frames", SCRIPT_FRAMES);
+    private static final long BUDGET_BYTES_PER_FRAME = Long.getLong("allocationGate.budget", 16L);
+    private static final int REPORTED_METHODS = 10;
+    private static final String GAME_PACKAGE = "io.github.helicopter.";
+    private static final Set<String> GAME_THREADS = Set.of(PongRunner.THREAD_NAME, TerrainStreamer.LOADER_THREAD_NAME);
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<String> report = new ArrayList<>();
+    private Map<Long, Long> gameThreadBytes = new HashMap<>();
+    private Thread[] liveThreads = new Thread[64];
+    private Main game;
+    private ScriptedInput input;
+    private Recording recording;
+    private int screenIndex = 0, frame = 0;
+    private long totalBytes = 0, worstFrameBytes = 0, gameThreadTotalBytes = 0;
+    private boolean failed = false;
+
+    public static void main(String[] args) {
+        if (StartupHelper.startNewJvmIfRequired()) return;
+        AllocationGate gate = new AllocationGate();
+        new Lwjgl3Application(gate, getConfiguration()) {
+            @Override
+            public Lwjgl3Input createInput(Lwjgl3Window window) { return new ScriptedInput(window); }
+        };
+        System.exit(gate.printReport() ? 0 : 1);
+    }
+
+    private static Lwjgl3ApplicationConfiguration getConfiguration() {
+        Lwjgl3ApplicationConfiguration configuration = new Lwjgl3ApplicationConfiguration();
+        configuration.setTitle("Helicopter - allocation gate");
+        configuration.setWindowedMode(640, 480);
+        configuration.setInitialVisible(false);
+        configuration.useVsync(false);
+        configuration.setForegroundFPS(0);
+        configuration.setIdleFPS(0);
+        return configuration;
+    }
+
+    @Override
+    public void create() {
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            failed = true;
+            report.add("Per-thread allocation counters are not supported by this JVM.");
+            Gdx.app.exit();
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        input = (ScriptedInput) Gdx.input;
+        game = new Main();
+        game.create();
+        beginScreen();
+    }
+
+    private void beginScreen() {
+        frame = 0;
+        totalBytes = worstFrameBytes = gameThreadTotalBytes = 0;
+        input.beginFrame();
+        game.setScreen(SCREENS[screenIndex]);
+    }
+
+    @Override
+    public void render() {
+        if (game == null || screenIndex >= SCREENS.length) return;
+        input.beginFrame();
+        script(SCREENS[screenIndex], frame % SCRIPT_FRAMES, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        long before = threads.getCurrentThreadAllocatedBytes();
+        game.render(FRAME_DELTA);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        long gameThreadAllocated = gameThreadBytesSinceLastFrame();
+        allocated += gameThreadAllocated;
+        frame++;
+        if (frame == WARMUP_FRAMES) startRecording();
+        else if (frame > WARMUP_FRAMES) {
+            totalBytes += allocated;
+            gameThreadTotalBytes += gameThreadAllocated;
+            worstFrameBytes = Math.max(worstFrameBytes, allocated);
+        }
+        if (frame < WARMUP_FRAMES + MEASURED_FRAMES) return;
+        finishScreen();
+        if (++screenIndex < SCREENS.length) beginScreen();
+        else Gdx.app.exit();
+    }
+
+    /**
+     * Returns what the game's own threads allocated since the last call. It runs outside the measured part of the
+     * frame, so its own allocations don't count; a thread that ends mid-frame loses its last frame's allocations.
+     */
+    private long gameThreadBytesSinceLastFrame() {
+        int count;
+        while ((count = Thread.enumerate(liveThreads)) == liveThreads.length) liveThreads = new Thread[count * 2];
+        Map<Long, Long> bytesByThread = new HashMap<>();
+        long allocated = 0;
+        for (int i = 0; i < count; i++) {
+            if (!GAME_THREADS.contains(liveThreads[i].getName())) continue;
+            long id = liveThreads[i].getId(), bytes = threads.getThreadAllocatedBytes(id);
+            if (bytes < 0) continue;
+            allocated += bytes - gameThreadBytes.getOrDefault(id, 0L);
+            bytesByThread.put(id, bytes);
+        }
+        Arrays.fill(liveThreads, 0, count, null);
+        gameThreadBytes = bytesByThread;
+        return allocated;
+    }
+
+    /** Sets the input for frame {@code f} of a screen's script; {@code width} and {@code height} are the window size. */
+    private void script(int screen, int f, int width, int height) {
+        switch (screen) {
+            case Main.SCREEN_MENU:
+                if (f % 60 == 0) input.hold(Input.Keys.DOWN);
+                else if (f % 60 == 30) input.hold(Input.Keys.UP);
+                break;
+            case Main.SCREEN_HELICOPTER:
+                if (f == 0 || f == 1800 || f == 3600) input.hold(Input.Keys.R);
+                else if (f >= 60 && f < 90) input.touch(width / 4, height / 4);
+                else if (f >= 600 && f < 900) input.touch(width / 2, height / 2); // hover over the gun until shot down
+                else if (f > 1800 && f < 2400) input.touch(width * (f - 1800) / 600, height / 3);
+                break;
+            case Main.SCREEN_PONG:
+                if (f == 0 || f == 4000) input.hold(Input.Keys.R);
+                else if (f < 120) input.hold(Input.Keys.W); // park the left paddle at the top so the AI wins the game
+                else if (f == 3600 || f == 3960) input.hold(Input.Keys.M);
+                else if (f == 3660 || f == 3900) input.hold(Input.Keys.T);
+                else if (f == 3720) input.hold(Input.Keys.D);
+                else if (f > 3780 && f < 3900) input.hold(Input.Keys.UP);
+                else if (f > 4000) input.hold((f / 60) % 2 == 0 ? Input.Keys.W : Input.Keys.S);
+                break;
+            case Main.SCREEN_SCROLLER:
+                if (f == 0 || f == 1200 || f == 3600) input.hold(Input.Keys.R);
+                else if (f < 600) input.hold(Input.Keys.UP); // climb into the ceiling
+                else if (f > 1200 && f < 2400) input.hold((f / 90) % 2 == 0 ? Input.Keys.UP : Input.Keys.DOWN);
+                else if (f >= 2400 && f < 3000) input.touch(width / 2, (f / 60) % 2 == 0 ? height / 3 : 2 * height / 3);
+                else if (f >= 3000 && f < 3600) input.hold(Input.Keys.DOWN); // dive into the ground
+                break;
+        }
+    }
+
+    private void startRecording() {
+        recording = new Recording();
+        recording.enable("jdk.ObjectAllocationSample").withStackTrace().with("throttle", "10000/s");
+        recording.start();
+    }
+
+    private void finishScreen() {
+        recording.stop();
+        double perFrame = (double) totalBytes / MEASURED_FRAMES;
+        boolean overBudget = perFrame > BUDGET_BYTES_PER_FRAME;
+        report.add(String.format("%-18s %10.1f B/frame avg (%.1f on game threads), %8d B worst frame, budget %d B/frame -> %s",
+            SCREEN_NAMES[screenIndex], perFrame, (double) gameThreadTotalBytes / MEASURED_FRAMES, worstFrameBytes,
+            BUDGET_BYTES_PER_FRAME, overBudget ? "FAIL" : "ok"));
+        if (overBudget) {
+            failed = true;
+            reportAllocatingMethods();
+        }
+        recording.close();
+        recording = null;
+    }
+
+    /** Sums the sampled allocation weight of the measured threads by the innermost game method on each stack. */
+    private void reportAllocatingMethods() {
+        Map<String, Long> bytesByMethod = new HashMap<>();
+        long threadId = Thread.currentThread().getId();
+        try {
+            Path file = Files.createTempFile("allocation-gate", ".jfr");
+            try {
+                recording.dump(file);
+                for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                    if (event.getThread() == null || event.getThread().getJavaThreadId() != threadId
+                        && !GAME_THREADS.contains(event.getThread().getJavaName())) continue;
+                    bytesByMethod.merge(allocationSite(event.getStackTrace()), event.getLong("weight"), Long::sum);
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            report.add("    could not read allocation samples: " + e.getMessage());
+            return;
+        }
+        bytesByMethod.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(REPORTED_METHODS)
+            .forEach(e -> report.add(String.format("    %10d B sampled  %s", e.getValue(), e.getKey())));
+    }
+
+    private static String allocationSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) return "<no stack trace>";
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        String top = describe(frames.get(0));
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(GAME_PACKAGE)
+                && !frame.getMethod().getType().getName().startsWith(AllocationGate.class.getName())) {
+                String site = describe(frame);
+                return site.equals(top) ? site : site + " via " + top;
+            }
+        }
+        return top;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private boolean printReport() {
+        if (report.isEmpty()) report.add("No frames were rendered.");
+        for (String line : report) System.out.println(line);
+        boolean passed = !failed && screenIndex >= SCREENS.length;
+        System.out.println(passed ? "Allocation gate passed." : "Allocation gate FAILED.");
+        return passed;
+    }
+
+    @Override public void resize(int width, int height) {}
+    @Override public void pause() {}
+    @Override public void resume() {}
+    @Override public void dispose() {
+        if (recording != null) recording.close();
+        if (game != null) game.dispose();
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.helicopter.lwjgl3;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import io.github.helicopter.Main;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Plays Pong at a fixed frame rate while recording it with {@link FrameCapture}: first without capture for a
+ * baseline, then with a normal encoder, then with an encoder slowed to a crawl. Fails if capturing costs frame rate,
+ * if the fast encoder drops frames, if the slow encoder stalls the loop instead of dropping frames, if any frame is
+ * unaccounted for, or if the recording is not the expected size or is blank. Works with software GL on Linux:
+ * {@code xvfb-run -a ./gradlew lwjgl3:frameCaptureCheck}. Like the launcher it falls back to GL 2 when no GL 3.2
+ * context can be created; {@code -DframeCaptureCheck.gl20=true} starts there, to check the synchronous readback.
+ */
+public class FrameCaptureCheck implements ApplicationListener {
+    private static final int TARGET_FPS = Integer.getInteger("frameCaptureCheck.fps", 60);
+    private static final int WARMUP_FRAMES = 120, PHASE_FRAMES = Integer.getInteger("frameCaptureCheck.frames", 600);
+    private static final long SLOW_ENCODER_NANOS = 50_000_000L;
+    private static final double MIN_FPS_RATIO = 0.9, MAX_FAST_DROP_RATIO = 0.02;
+    private static final boolean FORCE_GL20 = Boolean.getBoolean("frameCaptureCheck.gl20");
+    private static final String[] PHASE_NAMES = {"warm-up", "no capture", "capture", "capture, slow encoder"};
+    private static final int PHASE_WARMUP = 0, PHASE_BASELINE = 1, PHASE_CAPTURE = 2, PHASE_SLOW = 3;
+
+    private final Path directory;
+    private final List<String> report = new ArrayList<>();
+    private final double[] fps = new double[PHASE_NAMES.length];
+    private Main game;
+    private FrameCapture capture;
+    private int phase = PHASE_WARMUP, frame = 0;
+    private long phaseStart;
+    private boolean failed = false, finished = false;
+    private volatile long encoderDelayNanos = 0;
+
+    public static void main(String[] args) throws IOException {
+        if (StartupHelper.startNewJvmIfRequired()) return;
+        FrameCaptureCheck check = new FrameCaptureCheck(Files.createTempDirectory("frame-capture-check"));
+        try {
+            try {
+                new Lwjgl3Application(check, getConfiguration(!FORCE_GL20));
+            } catch (RuntimeException e) {
+                if (check.game != null) throw e;
+                check.report.add("No GL 3.2 context (" + e.getMessage() + "); retrying with GL 2.");
+                new Lwjgl3Application(check, getConfiguration(false));
+            }
+        } finally {
+            check.deleteDirectory();
+        }
+        System.exit(check.printReport() ? 0 : 1);
+    }
+
+    private FrameCaptureCheck(Path directory) { this.directory = directory; }
+
+    private static Lwjgl3ApplicationConfiguration getConfiguration(boolean gl30) {
+        Lwjgl3ApplicationConfiguration configuration = Lwjgl3Launcher.getDefaultConfiguration();
+        configuration.setTitle("Helicopter - frame capture check");
+        // Visible, so the default framebuffer is really rendered to; under xvfb-run nobody sees it.
+        configuration.useVsync(false);
+        configuration.setForegroundFPS(TARGET_FPS);
+        configuration.setIdleFPS(TARGET_FPS);
+        if (gl30) configuration.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL30, 3, 2);
+        return configuration;
+    }
+
+    @Override
+    public void create() {
+        game = new Main();
+        game.create();
+        game.setScreen(Main.SCREEN_PONG);
+        capture = new FrameCapture(directory.toFile(), FrameCapture.FORMAT_RAW, 8, this::createOutput);
+        if (Gdx.gl30 == null) report.add("No GL 3 context; testing the synchronous fallback instead of pixel buffer objects.");
+        phaseStart = System.nanoTime();
+    }
+
+    @Override
+    public void render() {
+        if (finished) return;
+        game.render();
+        capture.capture();
+        if (++frame < (phase == PHASE_WARMUP ? WARMUP_FRAMES : PHASE_FRAMES)) return;
+
+        fps[phase] = frame * 1e9 / (System.nanoTime() - phaseStart);
+        if (phase >= PHASE_CAPTURE) finishCapture();
+        if (++phase == PHASE_NAMES.length) {
+            finished = true;
+            Gdx.app.exit();
+            return;
+        }
+        if (phase >= PHASE_CAPTURE) {
+            encoderDelayNanos = phase == PHASE_SLOW ? SLOW_ENCODER_NANOS : 0;
+            capture.start();
+        }
+        frame = 0;
+        phaseStart = System.nanoTime();
+    }
+
+    private void finishCapture() {
+        capture.stop();
+        FrameEncoder encoder = capture.getEncoder();
+        long written = encoder.getWrittenFrames(), dropped = capture.getDroppedFrames();
+        long frameBytes = (long) Gdx.graphics.getBackBufferWidth() * Gdx.graphics.getBackBufferHeight() * 4;
+        double fpsRatio = fps[phase] / fps[PHASE_BASELINE];
+        List<String> problems = new ArrayList<>();
+        if (fpsRatio < MIN_FPS_RATIO) problems.add("frame rate fell to " + Math.round(fpsRatio * 100) + "% of baseline");
+        if (written + dropped != capture.getFrames()) problems.add((capture.getFrames() - written - dropped) + " frames unaccounted for");
+        if (phase == PHASE_CAPTURE && dropped > capture.getFrames() * MAX_FAST_DROP_RATIO) problems.add("fast encoder dropped frames");
+        if (phase == PHASE_SLOW && capture.getDroppedEncoderBusy() == 0) problems.add("slow encoder dropped nothing");
+        if (encoder.getError() != null) problems.add("write failed: " + encoder.getError().getMessage());
+        if (encoder.getWrittenBytes() != written * frameBytes) problems.add("wrote " + encoder.getWrittenBytes() + " bytes");
+        if (written > 0 && !hasPicture(frameBytes)) problems.add("first frame is blank");
+        report.add(String.format("%-22s %5.1f fps (baseline %5.1f), %d frames, %d written, %d dropped (%d readback busy, "
+                + "%d encoder busy) -> %s", PHASE_NAMES[phase], fps[phase], fps[PHASE_BASELINE], capture.getFrames(), written,
+            dropped, capture.getDroppedReadbackBusy(), capture.getDroppedEncoderBusy(),
+            problems.isEmpty() ? "ok" : "FAIL: " + String.join(", ", problems)));
+        failed |= !problems.isEmpty();
+    }
+
+    /** Creates the encoder's files as usual, but each write first waits {@link #encoderDelayNanos}, on the encoder thread. */
+    private WritableByteChannel createOutput(File file) throws IOException {
+        WritableByteChannel channel = FrameEncoder.FILES.create(file);
+        return new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                long end = System.nanoTime() + encoderDelayNanos;
+                while (System.nanoTime() < end) LockSupport.parkNanos(end - System.nanoTime());
+                return channel.write(source);
+            }
+
+            @Override public boolean isOpen() { return channel.isOpen(); }
+            @Override public void close() throws IOException { channel.close(); }
+        };
+    }
+
+    /** Checks that the first frame of the newest recording is not a single flat colour. */
+    private boolean hasPicture(long frameBytes) {
+        try (Stream<Path> files = Files.list(directory)) {
+            Path newest = files.max(Comparator.comparing(Path::getFileName)).orElse(null);
+            if (newest == null) return false;
+            ByteBuffer pixels = ByteBuffer.allocate((int) frameBytes);
+            try (FileChannel channel = FileChannel.open(newest, StandardOpenOption.READ)) {
+                while (pixels.hasRemaining()) if (channel.read(pixels) < 0) return false;
+            }
+            for (int i = 4; i < frameBytes; i += 4) if (pixels.getInt(i) != pixels.getInt(0)) return true;
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void deleteDirectory() {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (File file : files.map(Path::toFile).toArray(File[]::new)) file.delete();
+        } catch (IOException ignored) {
+        }
+        directory.toFile().delete();
+    }
+
+    private boolean printReport() {
+        report.add(0, String.format("%-22s %5.1f fps at a %d fps target", PHASE_NAMES[PHASE_BASELINE], fps[PHASE_BASELINE], TARGET_FPS));
+        for (String line : report) System.out.println(line);
+        boolean passed = !failed && finished;
+        System.out.println(passed ? "Frame capture check passed." : "Frame capture check FAILED.");
+        return passed;
+    }
+
+    @Override public void resize(int width, int height) { game.resize(width, height); }
+    @Override public void pause() {}
+    @Override public void resume() {}
+    @Override public void dispose() {
+        if (capture != null) capture.stop();
+        if (game != null) game.dispose();
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.helicopter.lwjgl3;
+
+import io.github.helicopter.PongAi;
+import io.github.helicopter.PongSimulation;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Compares the predictive {@link PongAi} with the old follow-the-ball AI it replaced. It records a stream of rallies
+ * and replays it through both AIs. The headline figure is each AI's total cost per simulation tick, which is what
+ * many matches pay: the predictive AI still runs {@link PongAi#update} every tick, so it costs about as much per tick
+ * as the follow AI even though it solves an intercept only when the ball changes direction; the cost and rate of
+ * decisions are reported after it. Then it plays closed-loop rallies to count how many balls each AI returns. Run
+ * it with {@code ./gradlew lwjgl3:pongAiBenchmark}.
+ */
+public class PongAiBenchmark {
+    private static final int TICKS = 1 << 16, REPLAYS = Integer.getInteger("pongAiBenchmark.replays", 50);
+    private static final int ROUNDS = Integer.getInteger("pongAiBenchmark.rounds", 5);
+    private static final int MATCH_TICKS = 2_000_000;
+    private static final float WIDTH = 640f, HEIGHT = 480f, DELTA = 1f / 120f;
+    private static final float PADDLE_WIDTH = PongSimulation.PADDLE_WIDTH, PADDLE_HEIGHT = PongSimulation.PADDLE_HEIGHT;
+    private static final float BALL_SIZE = PongSimulation.BALL_SIZE, PADDLE_MARGIN = PongSimulation.PADDLE_MARGIN;
+    private static final float LEFT_FACE = PADDLE_MARGIN + PADDLE_WIDTH;
+    private static final float RIGHT_FACE = WIDTH - PADDLE_MARGIN - PADDLE_WIDTH - BALL_SIZE;
+    private static final float MAX_BALL_SPEED = 900f;
+    private static final int FOLLOW = -1;
+
+    private final float[] ballX = new float[TICKS], ballY = new float[TICKS];
+    private final float[] velX = new float[TICKS], velY = new float[TICKS];
+    private final Random random = new Random(1);
+    private float x, y, vx, vy, speed;
+
+    public static void main(String[] args) {
+        PongAiBenchmark benchmark = new PongAiBenchmark();
+        benchmark.record();
+        for (int round = 1; round <= ROUNDS; round++) benchmark.replay(round, round > 1);
+        benchmark.play(FOLLOW);
+        for (int difficulty = 0; difficulty < PongAi.DIFFICULTIES; difficulty++) benchmark.play(difficulty);
+    }
+
+    /** The single-player AI as it was before {@link PongAi}: chase the ball centre with a dead zone, every tick. */
+    private static float follow(float paddleY, float ballY, float delta) {
+        float pc = paddleY + PADDLE_HEIGHT / 2f, bc = ballY + BALL_SIZE / 2f;
+        float aiSpeed = PongSimulation.PADDLE_SPEED * 0.7f;
+        if (bc > pc + 10) paddleY += aiSpeed * delta;
+        else if (bc < pc - 10) paddleY -= aiSpeed * delta;
+        return Math.max(0, Math.min(paddleY, HEIGHT - PADDLE_HEIGHT));
+    }
+
+    private void serve() {
+        x = WIDTH / 2f - BALL_SIZE / 2f;
+        y = HEIGHT / 2f - BALL_SIZE / 2f;
+        speed = PongSimulation.INITIAL_BALL_SPEED;
+        float angle = (float) (random.nextDouble() * Math.PI / 2 - Math.PI / 4);
+        vx = (random.nextBoolean() ? 1 : -1) * speed * (float) Math.cos(angle);
+        vy = speed * (float) Math.sin(angle);
+    }
+
+    /** Moves the ball one tick; returns the ball's Y if it reached the right paddle this tick, or NaN. */
+    private float moveBall() {
+        x += vx * DELTA;
+        y += vy * DELTA;
+        if (y <= 0) { y = 0; vy = Math.abs(vy); }
+        else if (y + BALL_SIZE >= HEIGHT) { y = HEIGHT - BALL_SIZE; vy = -Math.abs(vy); }
+        if (x <= LEFT_FACE && vx < 0) {
+            x = LEFT_FACE;
+            bounce(1, random.nextFloat());
+        } else if (x >= RIGHT_FACE && vx > 0) {
+            x = RIGHT_FACE;
+            return y;
+        }
+        return Float.NaN;
+    }
+
+    private void bounce(int direction, float hit) {
+        speed = Math.min(speed + PongSimulation.BALL_SPEED_INCREMENT, MAX_BALL_SPEED);
+        float angle = (hit - 0.5f) * (float) Math.PI / 3;
+        vx = direction * speed * (float) Math.cos(angle);
+        vy = speed * (float) Math.sin(angle);
+    }
+
+    /** Records endless rallies in which both sides return everything, so every kind of direction change shows up. */
+    private void record() {
+        serve();
+        for (int i = 0; i < TICKS; i++) {
+            if (!Float.isNaN(moveBall())) bounce(-1, random.nextFloat());
+            ballX[i] = x;
+            ballY[i] = y;
+            velX[i] = vx;
+            velY[i] = vy;
+        }
+    }
+
+    private void replay(int round, boolean report) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PongAi ai = new PongAi(round);
+        ai.setBounds(WIDTH, HEIGHT);
+        ai.setDifficulty(PongAi.HARD);
+        long ticks = (long) TICKS * REPLAYS;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        // Printed with the report so the JIT cannot drop the timed loops as dead code
+        float checksum = 0;
+
+        // One follow decision is one follow() call; one predictive decision is one intercept solve.
+        long start = System.nanoTime();
+        float paddleY = HEIGHT / 2f - PADDLE_HEIGHT / 2f;
+        for (int r = 0; r < REPLAYS; r++) for (int i = 0; i < TICKS; i++) paddleY = follow(paddleY, ballY[i], DELTA);
+        long followNanos = System.nanoTime() - start;
+        checksum += paddleY;
+
+        start = System.nanoTime();
+        float solved = 0;
+        for (int r = 0; r < REPLAYS; r++) {
+            for (int i = 0; i < TICKS; i++) solved += PongAi.interceptY(ballX[i], ballY[i], velX[i], velY[i], RIGHT_FACE, HEIGHT);
+        }
+        long solveNanos = System.nanoTime() - start;
+        checksum += solved;
+
+        start = System.nanoTime();
+        paddleY = HEIGHT / 2f - PADDLE_HEIGHT / 2f;
+        for (int r = 0; r < REPLAYS; r++) {
+            for (int i = 0; i < TICKS; i++) paddleY = ai.update(paddleY, ballX[i], ballY[i], velX[i], velY[i], DELTA);
+        }
+        long predictiveNanos = System.nanoTime() - start;
+        checksum += paddleY;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        if (report) {
+            double seconds = ticks * DELTA, followPerTick = (double) followNanos / ticks;
+            double predictivePerTick = (double) predictiveNanos / ticks;
+            double solvePerDecision = (double) solveNanos / ticks, predictiveDecisions = ai.getDecisions() / seconds;
+            System.out.printf("round %d: per tick, follow %.1f ns vs predictive %.1f ns (%.2fx) | decisions, follow %.0f/s "
+                    + "at %.1f ns vs predictive %.1f/s at %.1f ns | %d bytes allocated | checksum %.0f%n",
+                round, followPerTick, predictivePerTick, predictivePerTick / followPerTick, ticks / seconds, followPerTick,
+                predictiveDecisions, solvePerDecision, allocated, checksum);
+        }
+    }
+
+    /** Plays the right paddle against a left side that returns everything and counts returned balls. */
+    private void play(int difficulty) {
+        random.setSeed(2);
+        PongAi ai = new PongAi(3);
+        ai.setBounds(WIDTH, HEIGHT);
+        if (difficulty != FOLLOW) ai.setDifficulty(difficulty);
+        serve();
+        float paddleY = HEIGHT / 2f - PADDLE_HEIGHT / 2f;
+        int returned = 0, missed = 0;
+        for (int i = 0; i < MATCH_TICKS; i++) {
+            paddleY = difficulty == FOLLOW ? follow(paddleY, y, DELTA) : ai.update(paddleY, x, y, vx, vy, DELTA);
+            float arrivedY = moveBall();
+            if (Float.isNaN(arrivedY)) continue;
+            if (arrivedY + BALL_SIZE >= paddleY && arrivedY <= paddleY + PADDLE_HEIGHT) {
+                returned++;
+                bounce(-1, (arrivedY + BALL_SIZE / 2f - paddleY) / PADDLE_HEIGHT);
+            } else {
+                missed++;
+                serve();
+                ai.reset();
+            }
+        }
+        System.out.printf("%-10s returned %5.1f%% of %d balls%n",
+            difficulty == FOLLOW ? "follow" : PongAi.name(difficulty), 100.0 * returned / (returned + missed),
+            returned + missed);
+    }
+}
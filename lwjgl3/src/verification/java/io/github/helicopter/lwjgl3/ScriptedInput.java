@@ -0,0 +1,52 @@
+package io.github.helicopter.lwjgl3;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.backends.lwjgl3.DefaultLwjgl3Input;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Window;
+import java.util.Arrays;
+
+/**
+ * Window input with keys and a touch that a verification tool sets frame by frame on top of the real devices, so it
+ * can play the games unattended. A key held this frame but not the last one counts as just pressed.
+ */
+class ScriptedInput extends DefaultLwjgl3Input {
+    private boolean[] held = new boolean[Input.Keys.MAX_KEYCODE + 1], heldBefore = new boolean[Input.Keys.MAX_KEYCODE + 1];
+    private boolean touching = false, touchingBefore = false;
+    private int touchX, touchY;
+
+    ScriptedInput(Lwjgl3Window window) { super(window); }
+
+    /** Releases every scripted key and the touch; call once per frame before scripting it. */
+    void beginFrame() {
+        boolean[] previous = heldBefore;
+        heldBefore = held;
+        held = previous;
+        Arrays.fill(held, false);
+        touchingBefore = touching;
+        touching = false;
+    }
+
+    void hold(int key) { held[key] = true; }
+
+    /** Touches the screen this frame; coordinates are in pixels from the top left, like {@link #getX()}. */
+    void touch(int x, int y) {
+        touching = true;
+        touchX = x;
+        touchY = y;
+    }
+
+    @Override
+    public boolean isKeyPressed(int key) {
+        return key >= 0 && key < held.length && held[key] || super.isKeyPressed(key);
+    }
+
+    @Override
+    public boolean isKeyJustPressed(int key) {
+        return key >= 0 && key < held.length && held[key] && !heldBefore[key] || super.isKeyJustPressed(key);
+    }
+
+    @Override public boolean isTouched() { return touching || super.isTouched(); }
+    @Override public boolean justTouched() { return touching && !touchingBefore || super.justTouched(); }
+    @Override public int getX() { return touching ? touchX : super.getX(); }
+    @Override public int getY() { return touching ? touchY : super.getY(); }
+}
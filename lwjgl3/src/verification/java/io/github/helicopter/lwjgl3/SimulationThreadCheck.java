@@ -0,0 +1,295 @@
+package io.github.helicopter.lwjgl3;
+
+import io.github.helicopter.PongAi;
+import io.github.helicopter.PongRunner;
+import io.github.helicopter.PongSimulation;
+import io.github.helicopter.PongState;
+import io.github.helicopter.SimulationThread;
+import io.github.helicopter.TripleBuffer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Headless check of the Pong simulation thread, in two parts. First a {@link SimulationThread} publishing through a
+ * {@link TripleBuffer} and a render loop reading from it get deliberate stalls (slow ticks, slow frames); this fails
+ * if either thread ever blocked or waited on the other, if a stall on one side slowed the other, or if the render
+ * loop saw a torn or out-of-order state. Then a render loop drives a {@link PongRunner} exactly as PongScreen does:
+ * paddle input, commands, a window resize, the thread toggled off and on as with M, and a snapshot restore. This
+ * fails if the render loop blocked or waited outside those toggles, if input, bounds, commands or the restore did
+ * not reach the simulation, if ticks fell behind, or if drawn motion was not interpolated between published states.
+ * Last, a tick that throws must stop the thread and hand the error on rather than leave it marked as running. Run it with {@code ./gradlew lwjgl3:simulationThreadCheck}.
+ */
+public class SimulationThreadCheck {
+    private static final int TICKS_PER_SECOND = 120, FRAMES_PER_SECOND = 240;
+    private static final long DURATION_NANOS = Math.max(5L, Long.getLong("simulationThreadCheck.seconds", 5L)) * 1_000_000_000L;
+    private static final int SLOW_TICK_EVERY = 60, SLOW_FRAME_EVERY = 100;
+    private static final long SLOW_TICK_NANOS = 15_000_000L, SLOW_FRAME_NANOS = 50_000_000L;
+    // Well under one slow tick, so a hand-off that waited for it stands out, but above a scheduler time slice on one core.
+    private static final long MAX_HANDOFF_NANOS = SLOW_TICK_NANOS / 3;
+    private static final int WARMUP_FRAMES = FRAMES_PER_SECOND / 2;
+    private static final int STATE_LONGS = 64;
+    // PongRunner script, in frames at FRAMES_PER_SECOND: input flips every phase, commands come mid-phase and input is
+    // judged at its end; the thread is toggled off and on every cycle, and the window grows once.
+    private static final int PHASE_FRAMES = 120, COMMAND_FRAME = 60, JUDGE_FROM_FRAME = 90;
+    private static final int TOGGLE_CYCLE_FRAMES = 360, THREAD_OFF_FRAME = 20, THREAD_ON_FRAME = 140;
+    private static final int SNAPSHOT_FRAME = 600, RESTORE_FRAME = 960, RESIZE_FRAME = 720;
+    private static final float WIDTH = 640, HEIGHT = 480, RESIZED_WIDTH = 800, RESIZED_HEIGHT = 600;
+    private static final int[] COMMANDS = {PongRunner.COMMAND_TOGGLE_MODE, PongRunner.COMMAND_CYCLE_DIFFICULTY,
+        PongRunner.COMMAND_RESET, PongRunner.COMMAND_TOGGLE_MODE};
+    private static final long COMMAND_DEADLINE_NANOS = 100_000_000L;
+    private static final float MIN_PADDLE_TRAVEL = 10f, MIN_INTERPOLATED_RATIO = 0.8f;
+
+    private final TripleBuffer<long[]> buffer =
+        new TripleBuffer<>(new long[STATE_LONGS], new long[STATE_LONGS], new long[STATE_LONGS]);
+    private final SimulationThread simulation = new SimulationThread("check-simulation", TICKS_PER_SECOND, this::tick);
+    private volatile Thread simulationThread;
+    private long tick = 0;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final long renderThreadId = Thread.currentThread().getId();
+    private long excludedWaits = 0, excludedBlocks = 0;
+
+    public static void main(String[] args) {
+        SimulationThreadCheck check = new SimulationThreadCheck();
+        boolean passed = check.checkTripleBuffer();
+        passed &= check.checkPongRunner();
+        passed &= checkTickFailure();
+        System.out.println(passed ? "Simulation thread check passed." : "Simulation thread check FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    /** Fills every slot of the state with the tick number, so a torn read shows up as mismatched slots. */
+    private void tick() {
+        if (simulationThread == null) simulationThread = Thread.currentThread();
+        tick++;
+        if (tick % SLOW_TICK_EVERY == 0) spin(SLOW_TICK_NANOS);
+        long[] state = buffer.back();
+        for (int i = 0; i < STATE_LONGS; i++) state[i] = tick;
+        buffer.publish();
+    }
+
+    private boolean checkTripleBuffer() {
+        long renderBlocked = 0, renderWaited = 0;
+
+        simulation.start();
+        long frameNanos = 1_000_000_000L / FRAMES_PER_SECOND, start = System.nanoTime(), next = start;
+        long frames = 0, updates = 0, torn = 0, outOfOrder = 0, lastTick = 0, maxHandoffNanos = 0, lateFrames = 0;
+        while (System.nanoTime() - start < DURATION_NANOS) {
+            if (frames == WARMUP_FRAMES) {
+                // Thread start-up and class loading may block once; only the steady state counts.
+                renderBlocked = threads.getThreadInfo(renderThreadId).getBlockedCount();
+                renderWaited = threads.getThreadInfo(renderThreadId).getWaitedCount();
+                maxHandoffNanos = 0;
+            }
+            long frameStart = System.nanoTime();
+            if (frameStart - next > frameNanos) lateFrames++;
+            if (buffer.update()) updates++;
+            long[] state = buffer.front();
+            long observed = state[0];
+            for (int i = 1; i < STATE_LONGS; i++) if (state[i] != observed) { torn++; break; }
+            if (observed < lastTick) outOfOrder++;
+            lastTick = observed;
+            maxHandoffNanos = Math.max(maxHandoffNanos, System.nanoTime() - frameStart);
+            frames++;
+            if (frames % SLOW_FRAME_EVERY == 0) {
+                spin(SLOW_FRAME_NANOS);
+                next = System.nanoTime();
+            }
+            next += frameNanos;
+            while (System.nanoTime() < next) Thread.onSpinWait();
+        }
+        long seconds = DURATION_NANOS / 1_000_000_000L;
+        // Read the counters before stop(), which joins the simulation thread and so waits by design.
+        renderBlocked = threads.getThreadInfo(renderThreadId).getBlockedCount() - renderBlocked;
+        renderWaited = threads.getThreadInfo(renderThreadId).getWaitedCount() - renderWaited;
+        Thread simThread = simulationThread;
+        long simBlocked = simThread == null ? -1 : threads.getThreadInfo(simThread.getId()).getBlockedCount();
+        simulation.stop();
+
+        long expectedTicks = TICKS_PER_SECOND * seconds;
+        boolean ticksKeptUp = simulation.getTicks() >= expectedTicks * 9 / 10;
+        boolean passed = torn == 0 && outOfOrder == 0 && renderBlocked == 0 && renderWaited == 0 && simBlocked == 0
+            && ticksKeptUp && maxHandoffNanos < MAX_HANDOFF_NANOS;
+        System.out.printf("simulation: %d ticks (expected ~%d), %d dropped, slowest tick %.1f ms, blocked %d times%n",
+            simulation.getTicks(), expectedTicks, simulation.getDroppedTicks(), simulation.getMaxTickNanos() / 1e6, simBlocked);
+        System.out.printf("render: %d frames, %d new states, %d late frames, slowest hand-off %.1f us, blocked %d, waited %d%n",
+            frames, updates, lateFrames, maxHandoffNanos / 1e3, renderBlocked, renderWaited);
+        System.out.printf("states: %d torn, %d out of order -> %s%n", torn, outOfOrder, passed ? "ok" : "FAIL");
+        return passed;
+    }
+
+    /** Drives a {@link PongRunner} through the calls PongScreen makes and checks each reached the simulation. */
+    private boolean checkPongRunner() {
+        PongRunner runner = new PongRunner();
+        List<String> problems = new ArrayList<>();
+        ByteBuffer snapshot = ByteBuffer.allocate(64);
+        float width = WIDTH, height = HEIGHT;
+        runner.reset(width, height);
+        runner.startThread(width, height);
+        PongState initial = runner.getState();
+        boolean expectSinglePlayer = initial.isSinglePlayer();
+        int expectDifficulty = initial.getAiDifficulty(), snapshotLeft = 0, snapshotRight = 0;
+        boolean snapshotSinglePlayer = expectSinglePlayer;
+        int snapshotDifficulty = expectDifficulty;
+
+        long frameNanos = 1_000_000_000L / FRAMES_PER_SECOND, start = System.nanoTime(), next = start, last = start;
+        long commandDeadline = Long.MAX_VALUE, threadedNanos = 0;
+        int pendingCommand = 0, commandIndex = 0, frames = 0, threadedFrames = 0, movedFrames = 0;
+        int lostCommands = 0, ignoredInput = 0, outOfBounds = 0, jumps = 0;
+        float phaseStartY = 0, lastBallX = 0, lastBallY = 0, highestPaddle = 0;
+        int lastServe = -1;
+        long waitedBefore = waited(), blockedBefore = blocked();
+        while (System.nanoTime() - start < DURATION_NANOS) {
+            long now = System.nanoTime();
+            float delta = (now - last) / 1e9f;
+            last = now;
+            int phaseFrame = frames % PHASE_FRAMES, toggleFrame = frames % TOGGLE_CYCLE_FRAMES;
+            boolean up = (frames / PHASE_FRAMES) % 2 == 0;
+
+            if (frames == RESIZE_FRAME) {
+                width = RESIZED_WIDTH;
+                height = RESIZED_HEIGHT;
+            }
+            if (toggleFrame == THREAD_OFF_FRAME) stopThread(runner);
+            else if (toggleFrame == THREAD_ON_FRAME) startThread(runner, width, height);
+            if (frames == SNAPSHOT_FRAME) {
+                PongState state = runner.getState();
+                snapshot.clear();
+                runner.writeSnapshot(snapshot);
+                snapshotSinglePlayer = state.isSinglePlayer();
+                snapshotDifficulty = state.getAiDifficulty();
+                snapshotLeft = state.getLeftScore();
+                snapshotRight = state.getRightScore();
+            } else if (frames == RESTORE_FRAME) {
+                boolean wasThreaded = runner.isThreaded();
+                snapshot.flip();
+                long waitedBeforeRestore = waited(), blockedBeforeRestore = blocked();
+                runner.readSnapshot(snapshot);
+                excludedWaits += waited() - waitedBeforeRestore;
+                excludedBlocks += blocked() - blockedBeforeRestore;
+                PongState state = runner.getState();
+                if (state.isSinglePlayer() != snapshotSinglePlayer || state.getAiDifficulty() != snapshotDifficulty
+                    || state.getLeftScore() != snapshotLeft || state.getRightScore() != snapshotRight) problems.add("restore lost state");
+                expectSinglePlayer = snapshotSinglePlayer;
+                expectDifficulty = snapshotDifficulty;
+                if (wasThreaded) startThread(runner, width, height);
+            }
+            if (phaseFrame == COMMAND_FRAME) {
+                pendingCommand = COMMANDS[commandIndex++ % COMMANDS.length];
+                runner.command(pendingCommand);
+                if (pendingCommand == PongRunner.COMMAND_TOGGLE_MODE) expectSinglePlayer = !expectSinglePlayer;
+                if (pendingCommand == PongRunner.COMMAND_CYCLE_DIFFICULTY) expectDifficulty = (expectDifficulty + 1) % PongAi.DIFFICULTIES;
+                commandDeadline = now + COMMAND_DEADLINE_NANOS;
+            }
+
+            int input = up ? PongSimulation.INPUT_LEFT_UP : PongSimulation.INPUT_LEFT_DOWN;
+            PongState state = runner.update(delta, input, width, height);
+
+            if (now >= commandDeadline) {
+                boolean applied = state.isSinglePlayer() == expectSinglePlayer && state.getAiDifficulty() == expectDifficulty;
+                if (pendingCommand == PongRunner.COMMAND_RESET) applied &= state.getLeftScore() == 0 && state.getRightScore() == 0;
+                if (!applied) lostCommands++;
+                commandDeadline = Long.MAX_VALUE;
+            }
+            float paddle = state.getLeftPaddleY();
+            if (phaseFrame == JUDGE_FROM_FRAME) phaseStartY = paddle;
+            else if (phaseFrame == PHASE_FRAMES - 1 && toggleFrame != THREAD_ON_FRAME) {
+                boolean moved = up ? paddle >= Math.min(phaseStartY + MIN_PADDLE_TRAVEL, height - PongSimulation.PADDLE_HEIGHT - 1)
+                    : paddle <= Math.max(phaseStartY - MIN_PADDLE_TRAVEL, 1);
+                if (!moved) ignoredInput++;
+            }
+            if (frames > RESIZE_FRAME) highestPaddle = Math.max(highestPaddle, paddle);
+            if (paddle < 0 || paddle > height - PongSimulation.PADDLE_HEIGHT || state.getBallY() < 0
+                || state.getBallY() > height - PongSimulation.BALL_SIZE) outOfBounds++;
+
+            if (runner.isThreaded()) {
+                threadedFrames++;
+                threadedNanos += frameNanos;
+                boolean sameServe = state.getServe() == lastServe;
+                float moved = Math.abs(state.getBallX() - lastBallX) + Math.abs(state.getBallY() - lastBallY);
+                if (sameServe && !state.isGameOver() && moved > 0) movedFrames++;
+                if (sameServe && !state.isGameOver() && moved > state.getBallSpeed() * 2 * (delta + 2f / TICKS_PER_SECOND) + 1) jumps++;
+            }
+            lastServe = state.getServe();
+            lastBallX = state.getBallX();
+            lastBallY = state.getBallY();
+
+            frames++;
+            next += frameNanos;
+            while (System.nanoTime() < next) Thread.onSpinWait();
+        }
+        long renderWaited = waited() - waitedBefore - excludedWaits, renderBlocked = blocked() - blockedBefore - excludedBlocks;
+        long ticks = runner.getThread().getTicks();
+        stopThread(runner);
+
+        long expectedTicks = threadedNanos * TICKS_PER_SECOND / 1_000_000_000L;
+        float interpolated = threadedFrames == 0 ? 0 : (float) movedFrames / threadedFrames;
+        if (renderWaited != 0 || renderBlocked != 0) problems.add("render loop blocked " + renderBlocked + " and waited " + renderWaited + " times");
+        if (lostCommands != 0) problems.add(lostCommands + " commands not applied");
+        if (ignoredInput != 0) problems.add(ignoredInput + " input phases ignored");
+        if (outOfBounds != 0) problems.add(outOfBounds + " frames out of bounds");
+        if (highestPaddle <= HEIGHT - PongSimulation.PADDLE_HEIGHT) problems.add("new bounds never reached the simulation");
+        if (ticks < expectedTicks * 9 / 10) problems.add("ticks fell behind");
+        if (interpolated < MIN_INTERPOLATED_RATIO) problems.add("drawn motion not interpolated");
+        if (jumps != 0) problems.add(jumps + " jumps in drawn motion");
+        System.out.printf("runner: %d frames (%d threaded), %d ticks (expected ~%d), ball moved on %.0f%% of threaded frames, "
+                + "%d commands, render loop blocked %d, waited %d outside thread start and stop -> %s%n",
+            frames, threadedFrames, ticks, expectedTicks, interpolated * 100, commandIndex, renderBlocked, renderWaited,
+            problems.isEmpty() ? "ok" : "FAIL: " + String.join(", ", problems));
+        return problems.isEmpty();
+    }
+
+    /**
+     * Without a libGDX app to post to, as here, the thread rethrows the tick's error to its uncaught exception handler;
+     * in the game it is rethrown on the GL thread instead.
+     */
+    private static boolean checkTickFailure() {
+        RuntimeException failure = new IllegalStateException("tick failed on purpose");
+        AtomicReference<Throwable> reported = new AtomicReference<>();
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> reported.set(e));
+        AtomicInteger ticks = new AtomicInteger();
+        SimulationThread failing = new SimulationThread("check-failing-simulation", TICKS_PER_SECOND, () -> {
+            if (ticks.incrementAndGet() == 3) throw failure;
+        });
+        failing.start();
+        long deadline = System.nanoTime() + COMMAND_DEADLINE_NANOS * 10;
+        while ((failing.isRunning() || reported.get() == null) && System.nanoTime() < deadline) Thread.onSpinWait();
+        Thread.setDefaultUncaughtExceptionHandler(previous);
+        boolean stopped = !failing.isRunning();
+        failing.stop();
+        boolean passed = stopped && reported.get() == failure && ticks.get() == 3;
+        System.out.printf("failing tick: thread %s, error %s -> %s%n", stopped ? "stopped" : "still marked running",
+            reported.get() == failure ? "handed on" : "lost", passed ? "ok" : "FAIL");
+        return passed;
+    }
+
+    /** Stops the runner's thread; stop() joins it, so waiting here is by design and not counted. */
+    private void stopThread(PongRunner runner) {
+        long waitedBefore = waited(), blockedBefore = blocked();
+        runner.stopThread();
+        excludedWaits += waited() - waitedBefore;
+        excludedBlocks += blocked() - blockedBefore;
+    }
+
+    /** Starts the runner's thread; starting a thread may briefly contend on its monitor, which is not counted. */
+    private void startThread(PongRunner runner, float width, float height) {
+        long waitedBefore = waited(), blockedBefore = blocked();
+        runner.startThread(width, height);
+        excludedWaits += waited() - waitedBefore;
+        excludedBlocks += blocked() - blockedBefore;
+    }
+
+    private long waited() { return threads.getThreadInfo(renderThreadId).getWaitedCount(); }
+    private long blocked() { return threads.getThreadInfo(renderThreadId).getBlockedCount(); }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) Thread.onSpinWait();
+    }
+}
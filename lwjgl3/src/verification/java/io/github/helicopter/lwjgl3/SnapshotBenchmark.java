@@ -0,0 +1,137 @@
+package io.github.helicopter.lwjgl3;
+
+import io.github.helicopter.GameSnapshot;
+import io.github.helicopter.HelicopterScreen;
+import io.github.helicopter.Main;
+import io.github.helicopter.PongRunner;
+import io.github.helicopter.PongScreen;
+import io.github.helicopter.PongSimulation;
+import io.github.helicopter.PongState;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+
+/**
+ * Captures and restores a {@link GameSnapshot} of both games over and over, and checks that each takes well under a
+ * millisecond and that the steady state allocates nothing; saving and loading through a file is timed too. The
+ * screens are never shown, so no window is needed. Also checks that a damaged snapshot with out-of-range scores
+ * and explosion frame is clamped on restore. The damage is made by setting the games' own fields before capturing,
+ * by name, so the snapshot layout is never assumed here and a renamed field fails loudly. Run it with
+ * {@code ./gradlew lwjgl3:snapshotBenchmark}.
+ */
+public class SnapshotBenchmark {
+    private static final int OPERATIONS = Integer.getInteger("snapshotBenchmark.operations", 100_000);
+    private static final int FILE_OPERATIONS = Integer.getInteger("snapshotBenchmark.fileOperations", 1_000);
+    private static final int ROUNDS = Integer.getInteger("snapshotBenchmark.rounds", 5);
+    private static final long MAX_NANOS_PER_OPERATION = 1_000_000L;
+
+    private final Main game = new Main();
+    private final HelicopterScreen helicopter = new HelicopterScreen(game);
+    private final PongScreen pong = new PongScreen(game);
+    private final GameSnapshot snapshot = new GameSnapshot();
+    private final File file;
+
+    public static void main(String[] args) throws IOException, ReflectiveOperationException {
+        File file = File.createTempFile("snapshot-benchmark", ".snapshot");
+        boolean passed;
+        try {
+            SnapshotBenchmark benchmark = new SnapshotBenchmark(file);
+            passed = benchmark.checkDamagedSnapshot();
+            for (int round = 1; round <= ROUNDS; round++) passed &= benchmark.run(round, round > 1);
+        } finally {
+            file.delete();
+        }
+        System.out.println(passed ? "Snapshot benchmark passed." : "Snapshot benchmark FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    /** Starts from a snapshot with both games marked as started, so restoring takes the full path. */
+    private SnapshotBenchmark(File file) throws IOException, ReflectiveOperationException {
+        this.file = file;
+        set(helicopter, "isStarted", true);
+        set(pong, "started", true);
+        snapshot.capture(Main.SCREEN_PONG, helicopter, pong);
+        if (!snapshot.save(file) || !snapshot.load(file)) throw new IOException("Cannot save and load " + file);
+    }
+
+    private boolean checkDamagedSnapshot() throws ReflectiveOperationException {
+        PongState pongState = ((PongRunner) get(pong, "runner")).getState();
+        set(helicopter, "explosionFrame", 99);
+        set(pongState, "leftScore", 1000);
+        set(pongState, "rightScore", -5);
+        snapshot.capture(Main.SCREEN_PONG, helicopter, pong);
+        boolean passed;
+        try {
+            passed = snapshot.save(file) && snapshot.load(file) && snapshot.restore(helicopter, pong) == Main.SCREEN_PONG;
+            int explosionFrame = (Integer) get(helicopter, "explosionFrame");
+            int explosionFrames = ((String[]) get(HelicopterScreen.class, "EXPLOSION_FRAME_PATHS")).length;
+            int winningScore = (Integer) get(PongSimulation.class, "WINNING_SCORE");
+            int leftScore = pongState.getLeftScore(), rightScore = pongState.getRightScore();
+            passed &= explosionFrame >= 0 && explosionFrame < explosionFrames && leftScore == winningScore && rightScore == 0;
+            System.out.printf("damaged snapshot: explosion frame 99 -> %d, scores 1000:-5 -> %d:%d -> %s%n",
+                explosionFrame, leftScore, rightScore, passed ? "ok" : "FAIL");
+        } catch (RuntimeException e) {
+            passed = false;
+            System.out.println("damaged snapshot: " + e + " -> FAIL");
+        }
+        snapshot.capture(Main.SCREEN_PONG, helicopter, pong);
+        return passed;
+    }
+
+    private boolean run(int round, boolean report) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+
+        long start = System.nanoTime(), slowestCapture = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            long operationStart = System.nanoTime();
+            snapshot.capture(Main.SCREEN_PONG, helicopter, pong);
+            slowestCapture = Math.max(slowestCapture, System.nanoTime() - operationStart);
+        }
+        long captureNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long slowestRestore = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            long operationStart = System.nanoTime();
+            snapshot.restore(helicopter, pong);
+            slowestRestore = Math.max(slowestRestore, System.nanoTime() - operationStart);
+        }
+        long restoreNanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        start = System.nanoTime();
+        boolean filesOk = true;
+        for (int i = 0; i < FILE_OPERATIONS; i++) filesOk &= snapshot.save(file) && snapshot.load(file);
+        long fileNanos = System.nanoTime() - start;
+
+        double capture = (double) captureNanos / OPERATIONS, restore = (double) restoreNanos / OPERATIONS;
+        double saveLoad = (double) fileNanos / FILE_OPERATIONS;
+        boolean passed = filesOk && capture < MAX_NANOS_PER_OPERATION && restore < MAX_NANOS_PER_OPERATION
+            && saveLoad < MAX_NANOS_PER_OPERATION && (!report || allocated == 0);
+        if (report) {
+            System.out.printf("round %d: capture %.1f ns/op (slowest %.1f us), restore %.1f ns/op (slowest %.1f us), "
+                    + "save + load %.1f us/op, %d bytes allocated by capture and restore -> %s%n",
+                round, capture, slowestCapture / 1e3, restore, slowestRestore / 1e3, saveLoad / 1e3, allocated,
+                passed ? "ok" : "FAIL");
+        }
+        return passed;
+    }
+
+    /** Reads a field by name; {@code target} is the object, or the class for a static field. */
+    private static Object get(Object target, String name) throws ReflectiveOperationException {
+        Field field = field(target, name);
+        return field.get(target instanceof Class ? null : target);
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        field(target, name).set(target, value);
+    }
+
+    private static Field field(Object target, String name) throws NoSuchFieldException {
+        Field field = (target instanceof Class ? (Class<?>) target : target.getClass()).getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+}
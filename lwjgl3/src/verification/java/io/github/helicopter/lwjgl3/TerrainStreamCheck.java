@@ -0,0 +1,132 @@
+package io.github.helicopter.lwjgl3;
+
+import io.github.helicopter.ScrollingScreen;
+import io.github.helicopter.TerrainChunk;
+import io.github.helicopter.TerrainStreamer;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Scrolls across the scroller's world the way {@link ScrollingScreen} does, at 60 frames a second but many times
+ * faster than the game, across hundreds of chunk boundaries and the seam where the world wraps around. Fails if a
+ * visible chunk is ever missing or holds the wrong part of the world, if more than one request in a hundred takes half
+ * a frame or more (the odd one can be the OS scheduler's doing), if a request allocates once warmed up, or if the loader allocates more than a few bytes per chunk
+ * over the whole check; the chunk pool is fixed, so memory stays the same however far it scrolls. The loader's
+ * budget leaves room for the odd allocation inside the JDK's file channel. Headless; run it with
+ * {@code ./gradlew lwjgl3:terrainStreamCheck}.
+ */
+public class TerrainStreamCheck {
+    private static final int[] CHUNKS_PER_SECOND = {1, 4, 16, 32};
+    private static final int SECONDS = Integer.getInteger("terrainStreamCheck.seconds", 8);
+    private static final int FRAMES_PER_SECOND = 60, WARMUP_REQUESTS = 50_000;
+    // A 1920-pixel-wide screen at the game's scale, plus the two columns the screen keeps behind the camera
+    private static final double VISIBLE_CHUNKS = 1920.0 / 1024, MARGIN_COLUMNS = 2;
+    private static final int MAX_VISIBLE_CHUNKS = 8;
+    private static final long HITCH_NANOS = 1_000_000_000L / FRAMES_PER_SECOND / 2;
+    private static final double MAX_HITCH_RATIO = 0.01;
+    private static final long LOADER_BYTES_PER_CHUNK = 16;
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final TerrainStreamer streamer;
+    private final TerrainChunk[] visible = new TerrainChunk[MAX_VISIBLE_CHUNKS];
+    private final Thread loader;
+    private long loaderAllocatedBefore, boundaries = 0;
+
+    public static void main(String[] args) throws IOException {
+        File file = File.createTempFile("terrain-stream-check", ".bin");
+        boolean passed = true;
+        TerrainStreamCheck check = null;
+        try {
+            check = new TerrainStreamCheck(ScrollingScreen.openWorld(file));
+            check.warmUp();
+            for (int speed : CHUNKS_PER_SECOND) passed &= check.run(speed);
+            passed &= check.checkLoaderAllocations();
+        } finally {
+            if (check != null) check.streamer.close();
+            file.delete();
+        }
+        System.out.println(passed ? "Terrain stream check passed." : "Terrain stream check FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private TerrainStreamCheck(TerrainStreamer streamer) {
+        this.streamer = streamer;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        loader = findThread(TerrainStreamer.LOADER_THREAD_NAME);
+    }
+
+    /** Scrolls slowly without waiting between frames, so the streaming code is compiled before anything is timed. */
+    private void warmUp() {
+        double margin = MARGIN_COLUMNS / streamer.getTerrain().chunkColumns;
+        for (int i = 0; i < WARMUP_REQUESTS; i++) request(i * 0.002, margin);
+    }
+
+    /** Scrolls at {@code speed} chunks a second, starting so that the middle of the run crosses the world's seam. */
+    private boolean run(int speed) {
+        int chunkCount = streamer.getTerrain().chunkCount, frames = SECONDS * FRAMES_PER_SECOND;
+        double margin = MARGIN_COLUMNS / streamer.getTerrain().chunkColumns, step = (double) speed / FRAMES_PER_SECOND;
+        double position = chunkCount - speed * SECONDS / 2.0;
+        request(position, margin);
+        streamer.awaitPinned(1000);
+
+        int missing = 0, wrong = 0, hitches = 0, firstChunk = (int) Math.floor(position - margin);
+        long slowestRequest = 0, allocated = 0;
+        if (loaderAllocatedBefore == 0) loaderAllocatedBefore = threads.getThreadAllocatedBytes(loader.getId());
+        long next = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            position += step;
+            long start = System.nanoTime();
+            int first = request(position, margin);
+            long requestNanos = System.nanoTime() - start;
+            allocated += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            slowestRequest = Math.max(slowestRequest, requestNanos);
+            if (requestNanos >= HITCH_NANOS) hitches++;
+            int last = first + visibleCount(position, margin) - 1;
+            for (int index = first; index <= last; index++) {
+                TerrainChunk chunk = visible[index - first];
+                if (chunk == null) missing++;
+                else if (chunk.getIndex() != index) wrong++;
+            }
+            next += 1_000_000_000L / FRAMES_PER_SECOND;
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+        }
+        int crossed = (int) Math.floor(position - margin) - firstChunk;
+        boundaries += crossed;
+
+        boolean passed = missing == 0 && wrong == 0 && hitches <= frames * MAX_HITCH_RATIO && allocated == 0;
+        System.out.printf("%2d chunks/s: %d chunk boundaries, %d frames, %d missing and %d wrong visible chunks, "
+                + "%d requests over half a frame (slowest %.1f us), %d bytes allocated by requests -> %s%n",
+            speed, crossed, frames, missing, wrong, hitches, slowestRequest / 1e3, allocated, passed ? "ok" : "FAIL");
+        return passed;
+    }
+
+    private boolean checkLoaderAllocations() {
+        long allocated = threads.getThreadAllocatedBytes(loader.getId()) - loaderAllocatedBefore;
+        boolean passed = allocated <= boundaries * LOADER_BYTES_PER_CHUNK;
+        System.out.printf("loader: %d bytes allocated over %d chunk boundaries, budget %d B/chunk -> %s%n",
+            allocated, boundaries, LOADER_BYTES_PER_CHUNK, passed ? "ok" : "FAIL");
+        return passed;
+    }
+
+    /** Requests the chunks visible at {@code position}, in chunks, like the screen does; returns the first one. */
+    private int request(double position, double margin) {
+        int first = (int) Math.floor(position - margin);
+        streamer.request(first, first + visibleCount(position, margin) - 1, visible);
+        return first;
+    }
+
+    private static int visibleCount(double position, double margin) {
+        int first = (int) Math.floor(position - margin), last = (int) Math.floor(position + VISIBLE_CHUNKS);
+        return Math.min(last - first + 1, MAX_VISIBLE_CHUNKS);
+    }
+
+    private static Thread findThread(String name) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) if (thread.getName().equals(name)) return thread;
+        throw new IllegalStateException("No thread named " + name);
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.helicopter.lwjgl3;
+
+import io.github.helicopter.TimerWheel;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Schedules, reschedules and cancels 100k pending timers on a {@link TimerWheel}, ticks the wheel until they have
+ * all fired, and checks that every timer fired on its deadline tick and that the steady state allocated nothing.
+ * Run it with {@code ./gradlew lwjgl3:timerWheelBenchmark}.
+ */
+public class TimerWheelBenchmark {
+    private static final int TIMERS = Integer.getInteger("timerWheelBenchmark.timers", 100_000);
+    private static final int MAX_DELAY_TICKS = Integer.getInteger("timerWheelBenchmark.maxDelay", 1 << 20);
+    private static final int ROUNDS = Integer.getInteger("timerWheelBenchmark.rounds", 5);
+
+    private final TimerWheel wheel = new TimerWheel();
+    private final TimerWheel.Timer[] timers = new TimerWheel.Timer[TIMERS];
+    private final long[] expectedTicks = new long[TIMERS];
+    private final long[] delays = new long[TIMERS];
+    private int fired = 0, late = 0;
+
+    public static void main(String[] args) {
+        TimerWheelBenchmark benchmark = new TimerWheelBenchmark();
+        boolean passed = true;
+        for (int round = 1; round <= ROUNDS; round++) passed &= benchmark.run(round, round > 1);
+        System.out.println(passed ? "Timer wheel benchmark passed." : "Timer wheel benchmark FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private TimerWheelBenchmark() {
+        for (int i = 0; i < TIMERS; i++) {
+            int id = i;
+            timers[i] = new TimerWheel.Timer(() -> onFire(id));
+        }
+    }
+
+    private void onFire(int id) {
+        fired++;
+        if (wheel.getElapsedTicks() != expectedTicks[id]) late++;
+    }
+
+    private boolean run(int round, boolean report) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Random random = new Random(round);
+        for (int i = 0; i < TIMERS; i++) delays[i] = 1 + random.nextInt(MAX_DELAY_TICKS);
+        fired = late = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMERS; i++) {
+            wheel.schedule(timers[i], delays[i]);
+            expectedTicks[i] = timers[i].getDeadline();
+        }
+        long scheduleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < TIMERS; i += 2) {
+            wheel.schedule(timers[i], delays[TIMERS - 1 - i]);
+            expectedTicks[i] = timers[i].getDeadline();
+        }
+        long rescheduleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int cancelled = 0;
+        for (int i = 0; i < TIMERS; i += 10) if (wheel.cancel(timers[i])) cancelled++;
+        long cancelNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int ticks = 0;
+        while (wheel.size() > 0) { wheel.tick(); ticks++; }
+        long tickNanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        boolean passed = fired == TIMERS - cancelled && late == 0 && (!report || allocated == 0);
+        if (report) {
+            System.out.printf("round %d: schedule %.1f ns/op, reschedule %.1f ns/op, cancel %.1f ns/op, "
+                    + "%d ticks at %.1f ns/tick, %d fired, %d late, %d bytes allocated -> %s%n",
+                round, (double) scheduleNanos / TIMERS, (double) rescheduleNanos / (TIMERS / 2),
+                (double) cancelNanos / cancelled, ticks, (double) tickNanos / ticks, fired, late, allocated,
+                passed ? "ok" : "FAIL");
+        }
+        return passed;
+    }
+}